@@ -0,0 +1,82 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the operations of {@link Board} that the search calls on every
+ * node. {@link Board#propagate()} runs on the freshly parsed puzzles, the
+ * others on the puzzles after propagation has finished, which is the state
+ * the search sees them in.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+	@Param({ "EASY", "HARD", "SEVENTEEN", "MULTIPLE" })
+	PuzzleSet set;
+
+	private Board[] parsed;
+	private Board[] propagated;
+
+	@Setup
+	public void setUp() {
+		parsed = set.boards();
+		propagated = new Board[parsed.length];
+		for (int i = 0; i < parsed.length; i++) {
+			Board board = parsed[i];
+			Board next;
+			while ((next = board.propagate()) != board) {
+				board = next;
+			}
+			propagated[i] = board;
+		}
+	}
+
+	@Benchmark
+	public void propagate(Blackhole blackhole) {
+		for (Board board : parsed) {
+			blackhole.consume(board.propagate());
+		}
+	}
+
+	@Benchmark
+	public void isWrong(Blackhole blackhole) {
+		for (Board board : propagated) {
+			blackhole.consume(board.isWrong());
+		}
+	}
+
+	@Benchmark
+	public void isSolved(Blackhole blackhole) {
+		for (Board board : propagated) {
+			blackhole.consume(board.isSolved());
+		}
+	}
+
+	@Benchmark
+	public void minimumCandidatePair(Blackhole blackhole) {
+		for (Board board : propagated) {
+			blackhole.consume(board.minimumCandidatePair());
+		}
+	}
+}
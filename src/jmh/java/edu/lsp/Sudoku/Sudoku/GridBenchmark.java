@@ -0,0 +1,103 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing and solving puzzles of every supported size. The puzzles
+ * are generated grids with a fixed fraction of their squares emptied, and the
+ * search stops at the first solution. The {@link TrailSearch} assigns hidden
+ * singles, without which half-empty 25x25 puzzles can take seconds.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GridBenchmark {
+
+	/**
+	 * The number of puzzles of each size.
+	 */
+	private static final int PUZZLES = 8;
+
+	@Param({ "3", "4", "5" })
+	int unit;
+
+	@Param({ "0.5" })
+	double emptied;
+
+	private Grid grid;
+	private String[] puzzles;
+	private Board[] boards;
+	private final TrailSearch trailSearch = new TrailSearch(EnumSet.of(Rule.HIDDEN_SINGLE));
+	private final DancingLinks dancingLinks = new DancingLinks();
+
+	@Setup
+	public void setUp() {
+		grid = Grid.of(unit);
+		Random random = new Random(42);
+		SplittableRandom solved = new SplittableRandom(42);
+		int[] values = new int[grid.numberOfSquares];
+		puzzles = new String[PUZZLES];
+		boards = new Board[PUZZLES];
+		for (int i = 0; i < PUZZLES; i++) {
+			Generator.generateSolved(values, solved);
+			char[] line = new char[values.length];
+			for (int square = 0; square < line.length; square++) {
+				line[square] = grid.candidates.charAt(values[square] - 1);
+			}
+			for (int square = 0; square < line.length; square++) {
+				if (random.nextDouble() < emptied)
+					line[square] = '.';
+			}
+			puzzles[i] = new String(line);
+			boards[i] = Parser.parse(puzzles[i], grid);
+		}
+	}
+
+	@Benchmark
+	public int parse() {
+		int count = 0;
+		for (String puzzle : puzzles) {
+			count += Parser.parse(puzzle, grid).candidates(0);
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long trailSearch() {
+		long count = 0;
+		for (Board board : boards) {
+			count += trailSearch.count(board, 1);
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long dancingLinks() {
+		long count = 0;
+		for (Board board : boards) {
+			count += dancingLinks.count(board, 1);
+		}
+		return count;
+	}
+}
@@ -0,0 +1,78 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the speedup of {@link ParallelSearch} over the sequential
+ * {@link TrailSearch}. It enumerates every completion of a grid with its
+ * first 44 squares blanked out (about 230 000 solutions). A parallelism of 0
+ * runs the sequential search, as the baseline. The result is the number of
+ * solutions.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+	private static final String SOLUTION = "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+
+	private static final int BLANKS = 44;
+
+	@Param({ "0", "1", "2", "4", "8" })
+	int parallelism;
+
+	private Board board;
+	private TrailSearch sequential;
+	private ParallelSearch parallel;
+
+	@Setup
+	public void setUp() {
+		StringBuilder puzzle = new StringBuilder();
+		for (int i = 0; i < BLANKS; i++) {
+			puzzle.append('.');
+		}
+		board = Parser.parse(puzzle.append(SOLUTION.substring(BLANKS)).toString());
+		sequential = new TrailSearch();
+		if (parallelism > 0)
+			parallel = new ParallelSearch(parallelism, ParallelSearch.DEFAULT_SPLIT_DEPTH,
+					ParallelSearch.DEFAULT_MINIMUM_OPEN_SQUARES);
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (parallel != null)
+			parallel.close();
+	}
+
+	@Benchmark
+	public int search() {
+		List<Board> solutions = new ArrayList<>();
+		if (parallel == null) {
+			sequential.search(board, solutions);
+		} else {
+			parallel.search(board, solutions);
+		}
+		return solutions.size();
+	}
+}
@@ -0,0 +1,65 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link Parser#parse(String)} on every puzzle of a set, and the
+ * allocation-free {@link Parser#parse(byte[], int, int, int[])} on the same
+ * puzzles as ASCII bytes.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	@Param({ "EASY", "HARD", "SEVENTEEN", "MULTIPLE" })
+	PuzzleSet set;
+
+	private String[] puzzles;
+	private byte[][] bytes;
+	private final int[] masks = new int[Constants.NUMBER_OF_SQUARES];
+
+	@Setup
+	public void setUp() {
+		puzzles = set.puzzles();
+		bytes = new byte[puzzles.length][];
+		for (int i = 0; i < puzzles.length; i++) {
+			bytes[i] = puzzles[i].getBytes(StandardCharsets.US_ASCII);
+		}
+	}
+
+	@Benchmark
+	public void parse(Blackhole blackhole) {
+		for (String puzzle : puzzles) {
+			blackhole.consume(Parser.parse(puzzle));
+		}
+	}
+
+	@Benchmark
+	public void parseBytes(Blackhole blackhole) {
+		for (byte[] puzzle : bytes) {
+			blackhole.consume(Parser.parse(puzzle, 0, puzzle.length, masks));
+		}
+		blackhole.consume(masks);
+	}
+}
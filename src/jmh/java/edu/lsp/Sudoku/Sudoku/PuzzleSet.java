@@ -0,0 +1,66 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * The fixed sets of puzzles the benchmarks run on. Every benchmark operation
+ * processes a whole set, so results are only comparable within a set.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public enum PuzzleSet {
+	/**
+	 * Puzzles that constraint propagation solves without guessing.
+	 */
+	EASY("..3.2.6..9..3.5..1..18.64....81.29..7.......8..67.82....26.95..8..2.3..9..5.1.3..",
+			"2...8.3...6..7..84.3.5..2.9...1.54.8.........4.27.6...3.1..7.4.72..4..6...4.1...3",
+			"......9.7...42.18....7.5.261..9.4....5.....4....5.7..992.1.8....34.59...5.7......",
+			".3..5..4...8.1.5..46.....12.7.5.2.8....6.3....4.1.9.3.25.....98..1.2.6...8..6..2."),
+	/**
+	 * Puzzles that need a deep search.
+	 */
+	HARD("8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..",
+			"85...24..72......9..4.........1.7..23.5...9...4...........8..7..17..........36.4.",
+			"..53.....8......2..7..1.5..4....53...1..7...6..32...8..6.5....9..4....3......97..",
+			"52...6.........7.13...........4..8..6......5...........418.........3..2...87....."),
+	/**
+	 * Sparse puzzles with the minimum of 17 clues.
+	 */
+	SEVENTEEN("000000010400000000020000000000050407008000300001090000300400200050100000000806000",
+			"000000010400000000020000000000050604008000300001090000300400200050100000000807000",
+			"000000012000035000000600070700000300000400800100000000000120000080000040050000600",
+			"000000012003600000000007000410020000000500300700000600280000040000300500000000000"),
+	/**
+	 * Puzzles with several solutions, 8, 444 and 2688 of them.
+	 */
+	MULTIPLE("...................75491283154237896369845721287169534521974368438526917796318452",
+			"...............................37896369845721287169534521974368438526917796318452",
+			"........................................45721287169534521974368438526917796318452");
+
+	private final String[] puzzles;
+
+	PuzzleSet(String... puzzles) {
+		this.puzzles = puzzles;
+	}
+
+	/**
+	 * Returns the puzzles of the set as parsed Boards.
+	 *
+	 * @return The puzzles of the set as parsed Boards.
+	 */
+	public Board[] boards() {
+		Board[] boards = new Board[puzzles.length];
+		for (int i = 0; i < boards.length; i++) {
+			boards[i] = Parser.parse(puzzles[i]);
+		}
+		return boards;
+	}
+
+	/**
+	 * Returns the puzzles of the set as Strings.
+	 *
+	 * @return The puzzles of the set as Strings.
+	 */
+	public String[] puzzles() {
+		return puzzles.clone();
+	}
+}
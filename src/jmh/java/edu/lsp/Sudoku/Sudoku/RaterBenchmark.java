@@ -0,0 +1,51 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures rating a set of puzzles with a reused {@link Rater}. The sets
+ * without a unique solution stop at the first step that needs trial and
+ * error.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RaterBenchmark {
+
+	@Param({ "EASY", "HARD", "SEVENTEEN" })
+	PuzzleSet set;
+
+	private Board[] boards;
+	private final Rater rater = new Rater();
+
+	@Setup
+	public void setUp() {
+		boards = set.boards();
+	}
+
+	@Benchmark
+	public void rate(Blackhole blackhole) {
+		for (Board board : boards) {
+			blackhole.consume(rater.rate(board));
+		}
+	}
+}
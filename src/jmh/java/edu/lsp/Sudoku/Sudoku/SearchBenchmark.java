@@ -0,0 +1,57 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full {@link Main#search(Board, List, Engine)} of every puzzle of
+ * a set, with every engine. The result is the total number of solutions.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+	@Param({ "EASY", "HARD", "SEVENTEEN", "MULTIPLE" })
+	PuzzleSet set;
+
+	@Param({ "PROPAGATION", "TRAIL", "DANCING_LINKS" })
+	Engine engine;
+
+	private Board[] boards;
+
+	@Setup
+	public void setUp() {
+		boards = set.boards();
+	}
+
+	@Benchmark
+	public int search() {
+		int count = 0;
+		for (Board board : boards) {
+			List<Board> solutions = new ArrayList<>();
+			Main.search(board, solutions, engine);
+			count += solutions.size();
+		}
+		return count;
+	}
+}
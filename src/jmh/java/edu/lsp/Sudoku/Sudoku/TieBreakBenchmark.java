@@ -0,0 +1,58 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures counting the solutions of every puzzle of a set with the
+ * {@link TrailSearch}, with every {@link TieBreak}. The sparse puzzles of
+ * {@link PuzzleSet#SEVENTEEN} are where choosing the square to branch on
+ * matters most.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TieBreakBenchmark {
+
+	@Param({ "HARD", "SEVENTEEN", "MULTIPLE" })
+	PuzzleSet set;
+
+	@Param({ "FIRST", "DEGREE" })
+	TieBreak tieBreak;
+
+	private Board[] boards;
+	private TrailSearch search;
+
+	@Setup
+	public void setUp() {
+		boards = set.boards();
+		search = new TrailSearch(EnumSet.noneOf(Rule.class), tieBreak);
+	}
+
+	@Benchmark
+	public long count() {
+		long count = 0;
+		for (Board board : boards) {
+			count += search.count(board);
+		}
+		return count;
+	}
+}
@@ -0,0 +1,278 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solves puzzles streamed from a file, one per line, and writes one line per
+ * puzzle in the same order. A solved puzzle is written as a line of
+ * NUMBER_OF_SQUARES digits. Puzzles that cannot be solved uniquely or parsed
+ * are written as {@link #NO_SOLUTION}, {@link #MULTIPLE_SOLUTIONS} or
+ * {@link #INVALID}, so that every puzzle line gets exactly one answer line.
+ * Empty lines, lines of white space only and lines starting with '#' are
+ * skipped, whichever way the input is read, and get no answer line, so the
+ * nth answer line belongs to the nth puzzle line, not to the nth line of the
+ * input.
+ * <p>
+ * Only one line is held in memory at a time, so the size of the input is not
+ * limited. At the end, the throughput and the latency percentiles are
+ * reported.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class BatchSolver {
+
+	/**
+	 * The line written for a puzzle without any solution.
+	 */
+	public static final String NO_SOLUTION = "no solution";
+
+	/**
+	 * The line written for a puzzle with more than one solution.
+	 */
+	public static final String MULTIPLE_SOLUTIONS = "multiple solutions";
+
+	/**
+	 * The line written for a line that cannot be parsed.
+	 */
+	public static final String INVALID = "invalid";
+
+	/**
+	 * The size of the I/O buffers.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final TrailSearch search = new TrailSearch();
+	private final List<Board> solutions = new ArrayList<>(2);
+	private final LatencyHistogram latencies = new LatencyHistogram();
+	private long solved;
+	private long unsolvable;
+	private long multiple;
+	private long invalid;
+	private long elapsed;
+
+	/**
+	 * Solves the puzzles in a file and writes the solutions to another one.
+	 * A '-' (or a missing argument) stands for the standard input or output.
+	 * When both are files, they are memory-mapped. The report is printed to
+	 * the standard error.
+	 *
+	 * @param args
+	 *            The input file and the output file.
+	 * @throws IOException
+	 *             If a file cannot be read or written.
+	 */
+	public static void main(String[] args) throws IOException {
+		String input = args.length > 0 ? args[0] : "-";
+		String output = args.length > 1 ? args[1] : "-";
+		BatchSolver solver = new BatchSolver();
+		if (!input.equals("-") && !output.equals("-")) {
+			solver.solve(Paths.get(input), Paths.get(output));
+			solver.report(System.err);
+			return;
+		}
+		try (InputStream in = input.equals("-") ? System.in : new FileInputStream(input);
+				OutputStream out = output.equals("-") ? new NonClosingStream(System.out)
+						: new FileOutputStream(output)) {
+			solver.solve(in, out);
+		}
+		solver.report(System.err);
+	}
+
+	/**
+	 * Solves every puzzle read from the stream and writes the results to the
+	 * other stream. The streams are not closed.
+	 *
+	 * @param in
+	 *            The stream of puzzles.
+	 * @param out
+	 *            The stream to write the solutions to.
+	 * @throws IOException
+	 *             If a stream cannot be read or written.
+	 */
+	public void solve(InputStream in, OutputStream out) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII), BUFFER_SIZE);
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), BUFFER_SIZE);
+		long start = System.nanoTime();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (isSkipped(line))
+				continue;
+			writer.write(solve(line));
+			writer.write('\n');
+		}
+		writer.flush();
+		elapsed += System.nanoTime() - start;
+	}
+
+	/**
+	 * Solves every puzzle in the input file and writes the results to the
+	 * output file, using memory-mapped reading and buffered channel writing.
+	 *
+	 * @param input
+	 *            The file of puzzles.
+	 * @param output
+	 *            The file to write the solutions to.
+	 * @throws IOException
+	 *             If a file cannot be read or written.
+	 */
+	public void solve(Path input, Path output) throws IOException {
+		try (PuzzleFileReader reader = new PuzzleFileReader(input);
+				PuzzleFileWriter writer = new PuzzleFileWriter(output)) {
+			// The Board made from the array is dropped before the array is
+			// refilled, as the search only copies the masks.
+			int[] masks = new int[Constants.NUMBER_OF_SQUARES];
+			long start = System.nanoTime();
+			int status;
+			while ((status = reader.next(masks)) != PuzzleFileReader.END_OF_FILE) {
+				long puzzleStart = System.nanoTime();
+				if (status == PuzzleFileReader.INVALID) {
+					invalid++;
+					writer.write(INVALID);
+				} else if (solve(new Board(masks)) == 1) {
+					writer.write(solutions.get(0));
+				} else {
+					writer.write(marker(solutions.size()));
+				}
+				latencies.record(System.nanoTime() - puzzleStart);
+			}
+			writer.flush();
+			elapsed += System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the line holds no puzzle: it is empty,
+	 * only has white space or starts with '#'. {@link PuzzleFileReader}
+	 * skips the same lines.
+	 *
+	 * @param line
+	 *            The line to check.
+	 * @return <code>true</code> if the line is to be skipped.
+	 */
+	static boolean isSkipped(String line) {
+		if (!line.isEmpty() && line.charAt(0) == '#')
+			return true;
+		for (int i = 0; i < line.length(); i++) {
+			if (line.charAt(i) > ' ')
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Solves one puzzle and records its latency.
+	 *
+	 * @param line
+	 *            The puzzle.
+	 * @return The line to write for it.
+	 */
+	private String solve(String line) {
+		long start = System.nanoTime();
+		String result;
+		try {
+			int count = solve(Parser.parse(line));
+			result = count == 1 ? solutions.get(0).toLine() : marker(count);
+		} catch (IllegalArgumentException e) {
+			invalid++;
+			result = INVALID;
+		}
+		latencies.record(System.nanoTime() - start);
+		return result;
+	}
+
+	/**
+	 * Solves one puzzle into {@link #solutions}, stopping at the second
+	 * solution, and counts the outcome.
+	 *
+	 * @param board
+	 *            The puzzle.
+	 * @return The number of solutions found, 0, 1 or 2.
+	 */
+	private int solve(Board board) {
+		solutions.clear();
+		search.search(board, solutions, 2);
+		int count = solutions.size();
+		if (count == 1) {
+			solved++;
+		} else if (count == 0) {
+			unsolvable++;
+		} else {
+			multiple++;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the line written for a puzzle without a unique solution.
+	 */
+	private static String marker(int count) {
+		return count == 0 ? NO_SOLUTION : MULTIPLE_SOLUTIONS;
+	}
+
+	/**
+	 * Prints the counts, the throughput and the latency percentiles.
+	 *
+	 * @param out
+	 *            The stream to print to.
+	 */
+	public void report(PrintStream out) {
+		long puzzles = latencies.getCount();
+		double seconds = elapsed / 1e9;
+		out.printf("puzzles    %d (solved %d, no solution %d, multiple %d, invalid %d)%n", puzzles, solved,
+				unsolvable, multiple, invalid);
+		out.printf("time       %.3f s, %.0f puzzles/s%n", seconds, seconds > 0 ? puzzles / seconds : 0.0);
+		out.printf("latency    p50 %s, p90 %s, p99 %s, p99.9 %s, max %s%n", micros(latencies.getPercentile(50)),
+				micros(latencies.getPercentile(90)), micros(latencies.getPercentile(99)),
+				micros(latencies.getPercentile(99.9)), micros(latencies.getMaximum()));
+	}
+
+	/**
+	 * Returns the recorded latencies.
+	 *
+	 * @return The recorded latencies.
+	 */
+	public LatencyHistogram getLatencies() {
+		return latencies;
+	}
+
+	private static String micros(long nanos) {
+		return String.format("%.1f us", nanos / 1e3);
+	}
+
+	/**
+	 * Keeps the standard output open when the output stream is closed.
+	 */
+	static final class NonClosingStream extends FilterOutputStream {
+
+		NonClosingStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+}
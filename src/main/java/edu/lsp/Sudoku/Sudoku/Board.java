@@ -1,20 +1,22 @@
 package edu.lsp.Sudoku.Sudoku;
 
-import static edu.lsp.Sudoku.Sudoku.Constants.CANDIDATES;
-import static edu.lsp.Sudoku.Sudoku.Constants.PEERS;
-import static edu.lsp.Sudoku.Sudoku.Constants.SIZE;
-import static edu.lsp.Sudoku.Sudoku.Constants.UNIT;
-import static edu.lsp.Sudoku.Sudoku.Constants.UNITS;
 import java.util.*;
+import java.util.AbstractMap;
 import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This class represents a particular Board "state", with immutable mappings.
  * These can be considered as nodes in the search tree without any links. The
  * creation of Nodes is done separately in Main.java, during search.
+ * <p>
+ * The candidates of every square are stored as a bit mask in a flat array,
+ * indexed in the order of {@link Constants#SQUARES}. Bit <code>d - 1</code>
+ * is set if <code>d</code> is still a possible value of the square.
+ * <p>
+ * A Board belongs to a {@link Grid}, which is the standard 9x9 one unless
+ * the Board is created from a larger or smaller array of masks.
  *
  * @author Subhomoy Haldar
  * @version 1.0
@@ -22,10 +24,15 @@ import java.util.Map;
 public class Board {
 
 	/**
-	 * This immutable map stores the relations between the squares and the
-	 * possible values.
+	 * This array stores the candidate masks of the squares. It is never
+	 * modified after construction.
 	 */
-	private final Map<String, String> candidateMap;
+	private final int[] candidateMasks;
+
+	/**
+	 * The geometry of the Board.
+	 */
+	private final Grid grid;
 
 	/**
 	 * Creates a new Board with the given trusted map. Used internally by Main.
@@ -34,7 +41,58 @@ public class Board {
 	 *            The trusted map to be used.
 	 */
 	protected Board(final Map<String, String> trustedCandidateMap) {
-		candidateMap = Collections.unmodifiableMap(trustedCandidateMap);
+		this(Grid.STANDARD, trustedCandidateMap);
+	}
+
+	/**
+	 * Creates a new Board of the given grid with the given trusted map.
+	 *
+	 * @param grid
+	 *            The geometry of the Board.
+	 * @param trustedCandidateMap
+	 *            The trusted map to be used.
+	 */
+	protected Board(final Grid grid, final Map<String, String> trustedCandidateMap) {
+		this.grid = grid;
+		candidateMasks = new int[grid.numberOfSquares];
+		for (Map.Entry<String, String> entry : trustedCandidateMap.entrySet()) {
+			candidateMasks[grid.squareIndices.get(entry.getKey())] = grid.toMask(entry.getValue());
+		}
+	}
+
+	/**
+	 * Creates a new Board which takes ownership of the given trusted array of
+	 * candidate masks. The array must not be modified afterwards. The grid is
+	 * the one with as many squares as the array.
+	 *
+	 * @param trustedCandidateMasks
+	 *            The trusted masks to be used.
+	 */
+	Board(final int[] trustedCandidateMasks) {
+		candidateMasks = trustedCandidateMasks;
+		grid = Grid.ofSquares(trustedCandidateMasks.length);
+	}
+
+	/**
+	 * Creates a Board from a copy of the given candidate masks, such as those
+	 * filled in by {@link Parser#parse(byte[], int, int, int[])}. Bit
+	 * <code>i</code> of a mask stands for the i-th symbol of the grid. The
+	 * grid is the one with as many squares as the array.
+	 *
+	 * @param candidateMasks
+	 *            The candidate mask of every square.
+	 * @return The corresponding Board.
+	 * @throws IllegalArgumentException
+	 *             If no grid has as many squares as the array, or a mask is
+	 *             empty or has a bit beyond the symbols of the grid.
+	 */
+	public static Board of(int[] candidateMasks) {
+		Board board = new Board(candidateMasks.clone());
+		for (int mask : board.candidateMasks) {
+			if (mask == 0 || (mask & ~board.grid.allCandidates) != 0)
+				throw new IllegalArgumentException("Invalid candidate mask: " + Integer.toBinaryString(mask));
+		}
+		return board;
 	}
 
 	/**
@@ -49,9 +107,54 @@ public class Board {
 	 *            The value to assign to the square.
 	 */
 	protected Board(final Board previous, String square, String trustedValue) {
-		Map<String, String> temporaryMap = new LinkedHashMap<>(previous.candidateMap);
-		temporaryMap.put(square, trustedValue);
-		candidateMap = Collections.unmodifiableMap(temporaryMap);
+		this(previous, previous.grid.squareIndices.get(square), previous.grid.toMask(trustedValue));
+	}
+
+	/**
+	 * It is used to create a new Board from a pre-existing one with just one
+	 * change to be effected.
+	 *
+	 * @param previous
+	 *            The previous state/node in the tree.
+	 * @param square
+	 *            The index of the square to manipulate.
+	 * @param trustedMask
+	 *            The candidate mask to assign to the square.
+	 */
+	Board(final Board previous, int square, int trustedMask) {
+		candidateMasks = previous.candidateMasks.clone();
+		candidateMasks[square] = trustedMask;
+		grid = previous.grid;
+	}
+
+	/**
+	 * Returns the geometry of this Board.
+	 *
+	 * @return The geometry of this Board.
+	 */
+	public Grid getGrid() {
+		return grid;
+	}
+
+	/**
+	 * Returns the candidate mask of the square with the given index.
+	 *
+	 * @param square
+	 *            The index of the square.
+	 * @return The candidate mask of the square.
+	 */
+	int candidates(int square) {
+		return candidateMasks[square];
+	}
+
+	/**
+	 * Copies the candidate masks of all the squares into the given array.
+	 *
+	 * @param destination
+	 *            The array to copy into.
+	 */
+	void copyCandidates(int[] destination) {
+		System.arraycopy(candidateMasks, 0, destination, 0, candidateMasks.length);
 	}
 
 	/**
@@ -59,31 +162,70 @@ public class Board {
 	 * possibilities based on marked squares. Those with only one possible
 	 * candidate end up being marked.
 	 *
-	 * @return The result of applying constraint propagation.
+	 * @return The result of applying constraint propagation, or
+	 *         <code>null</code> if a square has no candidates left or a value
+	 *         is marked twice in a unit.
 	 */
 	public Board propagate() {
+		return propagate(Collections.<Rule> emptySet());
+	}
+
+	/**
+	 * Performs constraint propagation like {@link #propagate()}, and then
+	 * applies the given unit-based rules once to every unit.
+	 *
+	 * @param rules
+	 *            The rules to apply after removing the marked values.
+	 * @return The result of applying constraint propagation, or
+	 *         <code>null</code> if a contradiction is found.
+	 */
+	public Board propagate(Set<Rule> rules) {
+		return propagate(rules.isEmpty() ? null : new UnitRules(grid, rules));
+	}
+
+	/**
+	 * Performs constraint propagation like {@link #propagate(Set)}, with the
+	 * rules of a reused instance, so that a search does not allocate one per
+	 * pass.
+	 *
+	 * @param unitRules
+	 *            The rules to apply after removing the marked values, for the
+	 *            grid of this Board, or <code>null</code> for none.
+	 * @return The result of applying constraint propagation, or
+	 *         <code>null</code> if a contradiction is found.
+	 */
+	Board propagate(UnitRules unitRules) {
 		int eliminations = 0;
-		Map<String, String> cMap = new LinkedHashMap<>(this.candidateMap);
-		for (Map.Entry<String, String> entry : cMap.entrySet()) {
-			String square = entry.getKey();
-			String candidates = entry.getValue();
+		int[] masks = candidateMasks.clone();
+		int[][] peerIndices = grid.peerIndices;
+		for (int square = 0; square < masks.length; square++) {
+			int candidates = masks[square];
 			// check for wrong solution
-			if (candidates.isEmpty()) {
+			if (candidates == 0) {
 				return null;
 			}
 			// check for finalised
-			if (candidates.length() == 1) {
-				for (String peer : PEERS.get(square)) {
-					String peerValues = cMap.get(peer);
-					if (peerValues.length() > 1 && peerValues.contains(candidates)) {
+			if ((candidates & (candidates - 1)) == 0) {
+				for (int peer : peerIndices[square]) {
+					int peerValues = masks[peer];
+					// the same value is marked twice in a unit
+					if (peerValues == candidates) {
+						return null;
+					}
+					if ((peerValues & (peerValues - 1)) != 0 && (peerValues & candidates) != 0) {
 						eliminations++;
-						peerValues = peerValues.replace(candidates, "");
-						cMap.put(peer, peerValues);
+						masks[peer] = peerValues & ~candidates;
 					}
 				}
 			}
 		}
-		return eliminations == 0 ? this : new Board(cMap);
+		if (unitRules != null) {
+			int changes = unitRules.apply(masks);
+			if (changes < 0)
+				return null;
+			eliminations += changes;
+		}
+		return eliminations == 0 ? this : new Board(masks);
 	}
 
 	/**
@@ -94,8 +236,8 @@ public class Board {
 	 *         candidate.
 	 */
 	public boolean isSolved() {
-		for (String values : candidateMap.values()) {
-			if (values.length() > 1) {
+		for (int values : candidateMasks) {
+			if ((values & (values - 1)) != 0) {
 				return false;
 			}
 		}
@@ -108,21 +250,41 @@ public class Board {
 	 * @return <code>true</code> if there is any repetition in any of the units.
 	 */
 	public boolean isWrong() {
-		for (List<String> unit : UNITS) {
-			for (char number : CANDIDATES.toCharArray()) {
-				int count = 0;
-				for (String square : unit) {
-					String candidates = candidateMap.get(square);
-					if (candidates.length() == 1 && candidates.charAt(0) == number)
-						count++;
+		for (int[] unit : grid.unitIndices) {
+			int seen = 0;
+			for (int square : unit) {
+				int candidates = candidateMasks[square];
+				if (candidates != 0 && (candidates & (candidates - 1)) == 0) {
+					if ((seen & candidates) != 0)
+						return true;
+					seen |= candidates;
 				}
-				if (count > 1)
-					return true;
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Returns the index of the square with the minimum number of candidates,
+	 * or -1 if every square is marked.
+	 *
+	 * @return The index of the square with the minimum number of candidates.
+	 */
+	int minimumCandidateSquare() {
+		int minimum = -1;
+		int number = grid.size + 1;
+		for (int square = 0; square < candidateMasks.length; square++) {
+			int count = Integer.bitCount(candidateMasks[square]);
+			if (number > count && count > 1) {
+				number = count;
+				minimum = square;
+				if (count == 2)
+					break;
+			}
+		}
+		return minimum;
+	}
+
 	/**
 	 * Returns the square with the minimum number of candidates. This is useful
 	 * in search to reduce the rate of choosing the wrong branch.
@@ -130,16 +292,26 @@ public class Board {
 	 * @return The square with the minimum number of candidates.
 	 */
 	public Map.Entry<String, String> minimumCandidatePair() {
-		Map.Entry<String, String> minimum = null;
-		int number = SIZE + 1;
-		for (Map.Entry<String, String> entry : candidateMap.entrySet()) {
-			String candidates = entry.getValue();
-			if (number > candidates.length() && candidates.length() > 1) {
-				number = candidates.length();
-				minimum = entry;
-			}
+		int square = minimumCandidateSquare();
+		if (square == -1)
+			return null;
+		return new AbstractMap.SimpleImmutableEntry<>(grid.squares.get(square),
+				grid.toCandidates(candidateMasks[square]));
+	}
+
+	/**
+	 * Returns the current Board state as a single line with one character per
+	 * square, which {@link Parser#parse(String, Grid)} accepts. The unmarked
+	 * squares are represented by a '.'.
+	 *
+	 * @return The current Board state as a single line.
+	 */
+	public String toLine() {
+		char[] line = new char[candidateMasks.length];
+		for (int square = 0; square < candidateMasks.length; square++) {
+			line[square] = grid.symbol(candidateMasks[square]);
 		}
-		return minimum;
+		return new String(line);
 	}
 
 	/**
@@ -149,20 +321,30 @@ public class Board {
 	 * @return The current Board state as a String.
 	 */
 	public String toString() {
-		StringJoiner fullJoiner = new StringJoiner("\n", "\n+-----------------------+\n",
-				"\n+-----------------------+\n");
+		int unit = grid.unit;
+		int size = grid.size;
+		// Each square unit is 2 characters per square and a space wide
+		StringJoiner border = new StringJoiner("-", "+", "+");
+		StringJoiner separator = new StringJoiner("+", "|", "|");
+		char[] segment = new char[2 * unit + 1];
+		Arrays.fill(segment, '-');
+		for (int k = 0; k < unit; k++) {
+			border.add(new String(segment));
+			separator.add(new String(segment));
+		}
+		StringJoiner fullJoiner = new StringJoiner("\n", "\n" + border + "\n", "\n" + border + "\n");
 		StringJoiner lineJoiner = new StringJoiner(" ", "| ", " |");
 		int i = 1, j = 1;
-		for (String value : candidateMap.values()) {
-			lineJoiner.add(value.length() == 1 ? value : ".");
-			if (i % SIZE == 0) {
+		for (int value : candidateMasks) {
+			lineJoiner.add(String.valueOf(grid.symbol(value)));
+			if (i % size == 0) {
 				fullJoiner.add(lineJoiner.toString());
 				lineJoiner = new StringJoiner(" ", "| ", " |");
-				if (j % UNIT == 0 && j != SIZE) {
-					fullJoiner.add("|-------+-------+-------|");
+				if (j % unit == 0 && j != size) {
+					fullJoiner.add(separator.toString());
 				}
 				j++;
-			} else if (i % UNIT == 0) {
+			} else if (i % unit == 0) {
 				lineJoiner.add("|");
 			}
 			i++;
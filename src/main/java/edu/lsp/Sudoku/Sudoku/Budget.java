@@ -0,0 +1,63 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * The limits of one solve: a deadline, a number of nodes, a
+ * {@link CancellationToken} and the interrupt status of the thread. The
+ * searches call {@link #check(long)} before every node. The number of nodes
+ * is compared every time, but the clock, the token and the interrupt status
+ * are only looked at every {@link #CHECK_INTERVAL} nodes, so the checks cost
+ * next to nothing compared to the nodes.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+final class Budget {
+
+	/**
+	 * The number of nodes between two looks at the clock, the token and the
+	 * interrupt status. A power of two.
+	 */
+	static final int CHECK_INTERVAL = 64;
+
+	private final boolean timed;
+	private final long deadline;
+	private final long maxNodes;
+	private final CancellationToken token;
+
+	/**
+	 * Creates the budget of a solve starting now.
+	 *
+	 * @param timeout
+	 *            The time the solve may take in nanoseconds, or
+	 *            {@link Long#MAX_VALUE} for no deadline.
+	 * @param maxNodes
+	 *            The number of nodes the solve may visit.
+	 * @param token
+	 *            The token that cancels the solve, or <code>null</code>.
+	 */
+	Budget(long timeout, long maxNodes, CancellationToken token) {
+		timed = timeout != Long.MAX_VALUE;
+		deadline = timed ? System.nanoTime() + timeout : 0;
+		this.maxNodes = maxNodes;
+		this.token = token;
+	}
+
+	/**
+	 * Returns the reason to stop before visiting one more node.
+	 *
+	 * @param nodes
+	 *            The number of nodes visited so far.
+	 * @return The status to stop with, or <code>null</code> to go on.
+	 */
+	SolveStatus check(long nodes) {
+		if (nodes >= maxNodes)
+			return SolveStatus.TIMED_OUT;
+		if ((nodes & (CHECK_INTERVAL - 1)) != 0)
+			return null;
+		if ((token != null && token.isCancelled()) || Thread.currentThread().isInterrupted())
+			return SolveStatus.ABORTED;
+		if (timed && System.nanoTime() - deadline >= 0)
+			return SolveStatus.TIMED_OUT;
+		return null;
+	}
+}
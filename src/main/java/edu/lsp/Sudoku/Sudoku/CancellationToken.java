@@ -0,0 +1,32 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * Lets one thread stop the searches of another. A token is passed to
+ * {@link Solver#solve(Board, CancellationToken)}; once it is cancelled, the
+ * searches using it stop at their next check and return
+ * {@link SolveStatus#ABORTED}. A token cannot be reset, and it can be shared
+ * by any number of searches, for example all those of one request.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public final class CancellationToken {
+
+	private volatile boolean cancelled;
+
+	/**
+	 * Cancels every search using this token.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Returns <code>true</code> if the token has been cancelled.
+	 *
+	 * @return <code>true</code> if the token has been cancelled.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+}
@@ -0,0 +1,482 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Finds the minimal lexicographic equivalent (minlex form) of a standard
+ * puzzle under the transforms {@link Generator} uses: transposition, band and
+ * stack permutations, row and column permutations within them, and
+ * relabeling. Empty squares count as 0, so the canonical form puts as many
+ * empty squares first as it can, and the values are relabeled 1, 2, 3, ... in
+ * the order they first appear. Two puzzles are equivalent if and only if
+ * their canonical forms are equal.
+ * <p>
+ * The canonical form is built one row at a time. All the ways of choosing
+ * the first row and the order of the columns that give the smallest first
+ * row are kept, every one of them is extended by every allowed next row, and
+ * only those giving the smallest next row are kept, and so on. The smallest
+ * first row only depends on how many values each stack of the row holds, so
+ * only the first rows with the fewest values are tried against the 1296
+ * orders of the columns. Candidates that have used the same rows with the
+ * same columns and labels have the same future, so only one of them is kept,
+ * which bounds the ties that empty rows cause. A typical puzzle leaves a
+ * handful of ties after the first rows and takes a few tens of
+ * microseconds.
+ * <p>
+ * The scratch arrays grow as needed and are kept, so an instance should be
+ * reused. It is not thread-safe.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class Canonicalizer {
+
+	private static final int SIZE = 9;
+	private static final int SQUARES = SIZE * SIZE;
+
+	/**
+	 * The number of orders of the columns that keep the stacks together.
+	 */
+	private static final int ORDERS = 6 * 6 * 6 * 6;
+
+	/**
+	 * The orders of the columns, {@link #SIZE} entries each.
+	 */
+	private static final int[] COLUMN_ORDERS = new int[ORDERS * SIZE];
+
+	/**
+	 * The permutations of three things.
+	 */
+	private static final int[][] PERMUTATIONS = { { 0, 1, 2 }, { 0, 2, 1 }, { 1, 0, 2 }, { 1, 2, 0 }, { 2, 0, 1 },
+			{ 2, 1, 0 } };
+
+	static {
+		int order = 0;
+		for (int[] stacks : PERMUTATIONS) {
+			for (int[] first : PERMUTATIONS) {
+				for (int[] second : PERMUTATIONS) {
+					for (int[] third : PERMUTATIONS) {
+						int[][] within = { first, second, third };
+						for (int j = 0; j < SIZE; j++) {
+							COLUMN_ORDERS[order * SIZE + j] = 3 * stacks[j / 3] + within[j / 3][j % 3];
+						}
+						order++;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The values of the puzzle, as given and transposed.
+	 */
+	private final int[][] grids = new int[2][SQUARES];
+
+	/**
+	 * The values and the canonical form of the last Board.
+	 */
+	private final int[] values = new int[SQUARES];
+	private final int[] canonical = new int[SQUARES];
+
+	/**
+	 * The number of values in every stack of a first row.
+	 */
+	private final int[] stackSizes = new int[3];
+
+	/**
+	 * The current candidates, and the ones being built for the next row. For
+	 * every one, the transposition (bit 16) and the order of the columns, the
+	 * rows chosen so far (4 bits each, the first one lowest), the label of
+	 * every value (4 bits each, at 4 * (value - 1)) and the next free label.
+	 */
+	private int[] orders = new int[64];
+	private long[] rows = new long[64];
+	private long[] labels = new long[64];
+	private int[] nextLabels = new int[64];
+	private int count;
+	private int[] nextOrders = new int[64];
+	private long[] nextRows = new long[64];
+	private long[] nextLabelSets = new long[64];
+	private int[] nextNextLabels = new int[64];
+	private int nextCount;
+
+	/**
+	 * The smallest row found at the current level, 4 bits per square.
+	 */
+	private long best;
+
+	/**
+	 * An open addressing set of the candidates kept at the current level,
+	 * as the transposition, the order of the columns, the rows used and the
+	 * labels. Entries from older levels have an older stamp.
+	 */
+	private long[] keys = new long[128];
+	private int[] stamps = new int[128];
+	private int stamp;
+
+	/**
+	 * Finds the canonical form of the given puzzle.
+	 *
+	 * @param values
+	 *            The values of the puzzle, from 1 to 9 with 0 for an empty
+	 *            square, one per square of the standard grid.
+	 * @param canonical
+	 *            The array to write the canonical form to.
+	 * @return The transform that maps the puzzle to its canonical form.
+	 * @throws IllegalArgumentException
+	 *             If the puzzle is not a standard one.
+	 */
+	public GridTransform canonicalize(int[] values, int[] canonical) {
+		if (values.length != SQUARES)
+			throw new IllegalArgumentException("Not a standard puzzle: " + values.length + " squares");
+		for (int square = 0; square < SQUARES; square++) {
+			grids[0][square] = values[square];
+			grids[1][square] = values[(square % SIZE) * SIZE + square / SIZE];
+		}
+		firstRow();
+		for (int level = 1; level < SIZE; level++) {
+			nextRow(level);
+		}
+		GridTransform transform = transform();
+		transform.apply(values, canonical);
+		return transform;
+	}
+
+	/**
+	 * Returns the fingerprint of the canonical form of the given puzzle. The
+	 * squares with more than one candidate count as empty.
+	 *
+	 * @param board
+	 *            The puzzle.
+	 * @return The fingerprint of its canonical form.
+	 * @throws IllegalArgumentException
+	 *             If the puzzle is not a standard one.
+	 */
+	public long fingerprint(Board board) {
+		if (board.getGrid() != Grid.STANDARD)
+			throw new IllegalArgumentException("Not a standard puzzle: " + board.getGrid().getSize() + " values");
+		for (int square = 0; square < SQUARES; square++) {
+			int mask = board.candidates(square);
+			values[square] = mask != 0 && (mask & (mask - 1)) == 0 ? Integer.numberOfTrailingZeros(mask) + 1 : 0;
+		}
+		canonicalize(values, canonical);
+		return fingerprint(canonical);
+	}
+
+	/**
+	 * Returns a 64-bit fingerprint of the given values, such as a canonical
+	 * form. Equal values give equal fingerprints, and different ones collide
+	 * with a chance of about 2<sup>-64</sup>.
+	 *
+	 * @param values
+	 *            The values, from 0 to 15.
+	 * @return The fingerprint of the values.
+	 */
+	public static long fingerprint(int[] values) {
+		long hash = values.length;
+		long word = 0;
+		for (int i = 0; i < values.length; i++) {
+			word = word << 4 | values[i];
+			if ((i & 15) == 15 || i == values.length - 1) {
+				hash = mix(hash ^ mix(word + i));
+				word = 0;
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * The finalizer of MurmurHash3, which spreads every bit of the input over
+	 * the whole output.
+	 */
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	/**
+	 * Keeps the first rows and the orders of the columns that give the
+	 * smallest first row.
+	 */
+	private void firstRow() {
+		// The fewest values per stack, sorted, as a three digit number
+		int fewest = Integer.MAX_VALUE;
+		for (int t = 0; t < 2; t++) {
+			for (int row = 0; row < SIZE; row++) {
+				fewest = Math.min(fewest, stackCounts(grids[t], row));
+			}
+		}
+		count = 0;
+		for (int t = 0; t < 2; t++) {
+			for (int row = 0; row < SIZE; row++) {
+				if (stackCounts(grids[t], row) == fewest)
+					firstRow(t, row);
+			}
+		}
+	}
+
+	/**
+	 * Keeps every order of the columns that puts the stacks of the given row
+	 * with fewer values first, and the empty squares first within every
+	 * stack. They all give the smallest first row.
+	 */
+	private void firstRow(int t, int row) {
+		int[] grid = grids[t];
+		int[] counts = stackSizes;
+		Arrays.fill(counts, 0);
+		int nonEmpty = 0;
+		for (int column = 0; column < SIZE; column++) {
+			if (grid[row * SIZE + column] != 0) {
+				nonEmpty |= 1 << column;
+				counts[column / 3]++;
+			}
+		}
+		for (int s = 0; s < PERMUTATIONS.length; s++) {
+			int[] stacks = PERMUTATIONS[s];
+			if (counts[stacks[0]] > counts[stacks[1]] || counts[stacks[1]] > counts[stacks[2]])
+				continue;
+			for (int first = 0; first < PERMUTATIONS.length; first++) {
+				if (!isEmptyFirst(nonEmpty, stacks[0], PERMUTATIONS[first]))
+					continue;
+				for (int second = 0; second < PERMUTATIONS.length; second++) {
+					if (!isEmptyFirst(nonEmpty, stacks[1], PERMUTATIONS[second]))
+						continue;
+					for (int third = 0; third < PERMUTATIONS.length; third++) {
+						if (isEmptyFirst(nonEmpty, stacks[2], PERMUTATIONS[third]))
+							keepFirst(t, row, ((s * 6 + first) * 6 + second) * 6 + third);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the given order of the columns of the
+	 * stack puts the empty squares first.
+	 */
+	private static boolean isEmptyFirst(int nonEmpty, int stack, int[] within) {
+		boolean seen = false;
+		for (int k = 0; k < 3; k++) {
+			boolean empty = (nonEmpty & 1 << (3 * stack + within[k])) == 0;
+			if (empty && seen)
+				return false;
+			seen |= !empty;
+		}
+		return true;
+	}
+
+	/**
+	 * Labels the values of the first row in the given order of the columns
+	 * and keeps the candidate.
+	 */
+	private void keepFirst(int t, int row, int order) {
+		int[] grid = grids[t];
+		int base = order * SIZE;
+		long labelSet = 0;
+		int next = 0;
+		for (int j = 0; j < SIZE; j++) {
+			int value = grid[row * SIZE + COLUMN_ORDERS[base + j]];
+			if (value != 0 && (labelSet >>> 4 * (value - 1) & 15) == 0)
+				labelSet |= (long) ++next << 4 * (value - 1);
+		}
+		ensureCapacity(count + 1);
+		orders[count] = t << 16 | order;
+		rows[count] = row;
+		labels[count] = labelSet;
+		nextLabels[count] = next;
+		count++;
+	}
+
+	/**
+	 * Returns the number of values in every stack of the row, sorted, as a
+	 * three digit number.
+	 */
+	private static int stackCounts(int[] grid, int row) {
+		int a = 0;
+		int b = 0;
+		int c = 0;
+		for (int j = 0; j < 3; j++) {
+			if (grid[row * SIZE + j] != 0)
+				a++;
+			if (grid[row * SIZE + 3 + j] != 0)
+				b++;
+			if (grid[row * SIZE + 6 + j] != 0)
+				c++;
+		}
+		int low = Math.min(a, Math.min(b, c));
+		int high = Math.max(a, Math.max(b, c));
+		return 100 * low + 10 * (a + b + c - low - high) + high;
+	}
+
+	/**
+	 * Extends every candidate by every allowed row, and keeps those giving
+	 * the smallest row at the given level.
+	 */
+	private void nextRow(int level) {
+		nextCount = 0;
+		best = Long.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			long chosen = rows[i];
+			int used = 0;
+			for (int k = 0; k < level; k++) {
+				used |= 1 << (int) (chosen >>> 4 * k & 15);
+			}
+			if (level % 3 == 0) {
+				// A new band: any row of a band not used yet
+				for (int row = 0; row < SIZE; row++) {
+					if ((used & 7 << (row / 3 * 3)) == 0)
+						extend(i, level, row);
+				}
+			} else {
+				int band = (int) (chosen >>> 4 * (level - 1) & 15) / 3 * 3;
+				for (int row = band; row < band + 3; row++) {
+					if ((used & 1 << row) == 0)
+						extend(i, level, row);
+				}
+			}
+		}
+		removeDuplicates(level);
+		int[] swapOrders = orders;
+		orders = nextOrders;
+		nextOrders = swapOrders;
+		long[] swapRows = rows;
+		rows = nextRows;
+		nextRows = swapRows;
+		long[] swapLabels = labels;
+		labels = nextLabelSets;
+		nextLabelSets = swapLabels;
+		int[] swapNext = nextLabels;
+		nextLabels = nextNextLabels;
+		nextNextLabels = swapNext;
+		count = nextCount;
+	}
+
+	/**
+	 * Extends the ith candidate with the given row, and keeps it if the row
+	 * is the smallest one so far.
+	 */
+	private void extend(int i, int level, int row) {
+		int[] grid = grids[orders[i] >>> 16];
+		int base = (orders[i] & 0xffff) * SIZE;
+		long labelSet = labels[i];
+		int next = nextLabels[i];
+		long code = 0;
+		for (int j = 0; j < SIZE; j++) {
+			int value = grid[row * SIZE + COLUMN_ORDERS[base + j]];
+			if (value != 0) {
+				int label = (int) (labelSet >>> 4 * (value - 1) & 15);
+				if (label == 0) {
+					label = ++next;
+					labelSet |= (long) label << 4 * (value - 1);
+				}
+				code = code << 4 | label;
+			} else {
+				code <<= 4;
+			}
+			// Give up as soon as the row is bigger than the best one
+			if (code > best >>> 4 * (SIZE - 1 - j))
+				return;
+		}
+		if (code < best) {
+			best = code;
+			nextCount = 0;
+		}
+		ensureCapacity(nextCount + 1);
+		nextOrders[nextCount] = orders[i];
+		nextRows[nextCount] = rows[i] | (long) row << 4 * level;
+		nextLabelSets[nextCount] = labelSet;
+		nextNextLabels[nextCount] = next;
+		nextCount++;
+	}
+
+	/**
+	 * Keeps one of the candidates of the next level that used the same rows
+	 * with the same columns and labels.
+	 */
+	private void removeDuplicates(int level) {
+		if (nextCount < 2)
+			return;
+		if (keys.length < 2 * nextCount) {
+			int length = Integer.highestOneBit(2 * nextCount) << 1;
+			keys = new long[length];
+			stamps = new int[length];
+		}
+		if (++stamp == 0) {
+			Arrays.fill(stamps, 0);
+			stamp = 1;
+		}
+		int mask = keys.length - 1;
+		int kept = 0;
+		for (int i = 0; i < nextCount; i++) {
+			int used = 0;
+			for (int k = 0; k <= level; k++) {
+				used |= 1 << (int) (nextRows[i] >>> 4 * k & 15);
+			}
+			long key = nextLabelSets[i] | (long) (nextOrders[i] << 9 | used) << 36;
+			int slot = (int) mix(key) & mask;
+			boolean duplicate = false;
+			while (stamps[slot] == stamp) {
+				if (keys[slot] == key) {
+					duplicate = true;
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+			if (duplicate)
+				continue;
+			stamps[slot] = stamp;
+			keys[slot] = key;
+			nextOrders[kept] = nextOrders[i];
+			nextRows[kept] = nextRows[i];
+			nextLabelSets[kept] = nextLabelSets[i];
+			nextNextLabels[kept] = nextNextLabels[i];
+			kept++;
+		}
+		nextCount = kept;
+	}
+
+	/**
+	 * Builds the transform of the first remaining candidate. The values that
+	 * do not appear get the remaining labels in increasing order.
+	 */
+	private GridTransform transform() {
+		boolean transposed = orders[0] >>> 16 != 0;
+		int base = (orders[0] & 0xffff) * SIZE;
+		int[] squares = new int[SQUARES];
+		for (int i = 0; i < SIZE; i++) {
+			int row = (int) (rows[0] >>> 4 * i & 15);
+			for (int j = 0; j < SIZE; j++) {
+				int column = COLUMN_ORDERS[base + j];
+				squares[i * SIZE + j] = transposed ? column * SIZE + row : row * SIZE + column;
+			}
+		}
+		int[] valueLabels = new int[SIZE + 1];
+		int next = nextLabels[0];
+		for (int value = 1; value <= SIZE; value++) {
+			int label = (int) (labels[0] >>> 4 * (value - 1) & 15);
+			valueLabels[value] = label != 0 ? label : ++next;
+		}
+		return new GridTransform(squares, valueLabels);
+	}
+
+	/**
+	 * Makes room for the given number of candidates at both levels.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity <= orders.length && capacity <= nextOrders.length)
+			return;
+		int length = Math.max(capacity, 2 * Math.max(orders.length, nextOrders.length));
+		orders = Arrays.copyOf(orders, length);
+		rows = Arrays.copyOf(rows, length);
+		labels = Arrays.copyOf(labels, length);
+		nextLabels = Arrays.copyOf(nextLabels, length);
+		nextOrders = Arrays.copyOf(nextOrders, length);
+		nextRows = Arrays.copyOf(nextRows, length);
+		nextLabelSets = Arrays.copyOf(nextLabelSets, length);
+		nextNextLabels = Arrays.copyOf(nextNextLabels, length);
+	}
+}
@@ -4,7 +4,8 @@ import java.util.*;
 
 /**
  * This class generates and stores constants that will be used frequently
- * throughout the project.
+ * throughout the project. They describe the standard 9x9 grid; the other
+ * sizes are described by {@link Grid}.
  *
  * @author Subhomoy Haldar
  * @version 1.0
@@ -38,86 +39,79 @@ public class Constants {
      * The map between every square and its set of peers.
      */
     public static final Map<String, Set<String>> PEERS;
-
     /**
-     * The maximum number of times the Generator will run the shuffle loop.
+     * The bit mask with every candidate set. Bit <code>d - 1</code> stands
+     * for the candidate <code>d</code>.
+     */
+    public static final int ALL_CANDIDATES = (1 << SIZE) - 1;
+    /**
+     * The map between every square label and its index in {@link #SQUARES}.
+     */
+    public static final Map<String, Integer> SQUARE_INDICES;
+    /**
+     * The units of {@link #UNITS}, with square indices instead of labels.
+     */
+    protected static final int[][] UNIT_INDICES;
+    /**
+     * The peers of every square (by index), with indices instead of labels.
      */
-    protected static final int MAX_SHUFFLE = 20;
+    protected static final int[][] PEER_INDICES;
+    /**
+     * The indices (into {@link #UNIT_INDICES}) of the units of every square.
+     */
+    protected static final int[][] SQUARE_UNITS;
 
     static {
-        // All the possibilities linearly stored in this String
-        StringBuilder builder = new StringBuilder(SIZE);
-        for (int i = 1; i <= SIZE; i++) {
-            builder.append(i);
-        }
-        CANDIDATES = builder.toString();
+        // The tables are shared with the standard Grid
+        Grid grid = Grid.STANDARD;
+        CANDIDATES = grid.candidates;
+        SQUARES = grid.squares;
+        SQUARE_INDICES = grid.squareIndices;
+        UNIT_INDICES = grid.unitIndices;
+        PEER_INDICES = grid.peerIndices;
+        SQUARE_UNITS = grid.squareUnits;
 
-        // Generate the square labels
-        List<String> squareList = new ArrayList<>(NUMBER_OF_SQUARES);
-        char row = 'A';
-        char col;
-        for (int i = 0; i < SIZE; i++, row++) {
-            col = '1';
-            for (int j = 0; j < SIZE; j++, col++) {
-                String square = "" + row + col;
-                squareList.add(square);
-            }
-        }
-        SQUARES = Collections.unmodifiableList(squareList);
-
-        // Generate the units
-        List<List<String>> temporaryLists = new ArrayList<>(SIZE * 3);
-        // First, the rows
-        row = 'A';
-        for (int i = 0; i < SIZE; i++, row++) {
+        // The label based counterparts
+        List<List<String>> temporaryLists = new ArrayList<>(UNIT_INDICES.length);
+        for (int[] unit : UNIT_INDICES) {
             List<String> squares = new ArrayList<>(SIZE);
-            col = '1';
-            for (int j = 0; j < SIZE; j++, col++) {
-                squares.add("" + row + col);
-            }
-            temporaryLists.add(squares);
-        }
-        // Second, the columns
-        col = '1';
-        for (int i = 0; i < SIZE; i++, col++) {
-            row = 'A';
-            List<String> squares = new ArrayList<>(SIZE);
-            for (int j = 0; j < SIZE; j++, row++) {
-                squares.add("" + row + col);
-            }
-            temporaryLists.add(squares);
-        }
-        // Third, the squares
-        int xOffset = 0;
-        int yOffset = 0;
-        while (xOffset < UNIT && yOffset < UNIT) {
-            List<String> squares = new ArrayList<>(SIZE);
-            for (int i = 0; i < UNIT; i++) {
-                for (int j = 0; j < UNIT; j++) {
-                    col = (char) ('1' + xOffset * UNIT + j);
-                    row = (char) ('A' + yOffset * UNIT + i);
-                    squares.add("" + row + col);
-                }
-            }
-            temporaryLists.add(squares);
-            xOffset++;
-            if (xOffset == UNIT) {
-                xOffset = 0;
-                yOffset++;
+            for (int square : unit) {
+                squares.add(SQUARES.get(square));
             }
+            temporaryLists.add(Collections.unmodifiableList(squares));
         }
         UNITS = Collections.unmodifiableList(temporaryLists);
 
         // The peers for each square
         Map<String, Set<String>> peerMap = new HashMap<>(NUMBER_OF_SQUARES);
-        for (String square : SQUARES) {
+        for (int i = 0; i < NUMBER_OF_SQUARES; i++) {
             Set<String> peers = new HashSet<>(SIZE * 3 + 2 * (SIZE - UNIT));
-            UNITS.stream()
-                    .filter(unit -> unit.contains(square))
-                    .forEach(peers::addAll);
-            peers.remove(square);
-            peerMap.put(square, peers);
+            for (int peer : PEER_INDICES[i]) {
+                peers.add(SQUARES.get(peer));
+            }
+            peerMap.put(SQUARES.get(i), peers);
         }
         PEERS = Collections.unmodifiableMap(peerMap);
     }
+
+    /**
+     * Returns the String of candidates represented by the given bit mask.
+     *
+     * @param mask The bit mask to convert.
+     * @return The String of candidates represented by the given bit mask.
+     */
+    public static String toCandidates(int mask) {
+        return Grid.STANDARD.toCandidates(mask);
+    }
+
+    /**
+     * Returns the bit mask of the given String of candidates. Characters that
+     * are not candidates are ignored.
+     *
+     * @param candidates The String of candidates to convert.
+     * @return The bit mask of the given String of candidates.
+     */
+    public static int toMask(String candidates) {
+        return Grid.STANDARD.toMask(candidates);
+    }
 }
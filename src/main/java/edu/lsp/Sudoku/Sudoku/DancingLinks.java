@@ -0,0 +1,397 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.List;
+
+/**
+ * Solves a Board with Knuth's Algorithm X, using Dancing Links.
+ * <p>
+ * The grid is encoded as an exact-cover problem with one column for every
+ * constraint (each square has a value, each row, column and square unit
+ * contains each value) and one row for every (square, value) pair that is
+ * still a candidate in the given Board. The links are stored in flat int
+ * arrays which are allocated once per {@link Grid}, so the cost per node
+ * stays small and predictable.
+ * <p>
+ * An instance can be reused for any number of searches, but it must not be
+ * shared between threads.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class DancingLinks {
+
+	/**
+	 * The number of nodes that each matrix row has.
+	 */
+	private static final int NODES_PER_ROW = 4;
+
+	/**
+	 * The index of the root header. The column headers follow it.
+	 */
+	private static final int ROOT = 0;
+
+	/**
+	 * The grid the arrays are allocated for, or <code>null</code> before the
+	 * first search.
+	 */
+	private Grid grid;
+
+	/**
+	 * The number of values and squares of the grid.
+	 */
+	private int values;
+	private int squares;
+
+	/**
+	 * The number of constraint columns: four groups of one per square.
+	 */
+	private int columns;
+
+	private int[] left;
+	private int[] right;
+	private int[] up;
+	private int[] down;
+
+	/**
+	 * The column header of each node.
+	 */
+	private int[] column;
+
+	/**
+	 * The matrix row of each node, i.e. <code>square * values + value</code>.
+	 */
+	private int[] row;
+
+	/**
+	 * The number of nodes in each column, indexed by the column header.
+	 */
+	private int[] size;
+
+	/**
+	 * The first node of each matrix row, or -1 if the row is not present.
+	 */
+	private int[] rowStart;
+
+	/**
+	 * The matrix rows selected so far, one per square.
+	 */
+	private int[] selected;
+
+	/**
+	 * The index of the next free node.
+	 */
+	private int nodes;
+
+	/**
+	 * The list the solutions are added to, or <code>null</code> when the
+	 * solutions are only counted.
+	 */
+	private List<Board> solutions;
+
+	/**
+	 * The number of solutions found so far.
+	 */
+	private long found;
+
+	/**
+	 * The number of solutions at which the search stops.
+	 */
+	private long limit;
+
+	/**
+	 * Finds all the solutions of the given Board and adds them to the list.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param solutions
+	 *            The list to add the solutions to.
+	 */
+	public void search(Board board, List<Board> solutions) {
+		search(board, solutions, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Finds the solutions of the given Board and adds them to the list,
+	 * stopping as soon as the list holds the given number of solutions.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param solutions
+	 *            The list to add the solutions to.
+	 * @param limit
+	 *            The maximum number of solutions the list may hold.
+	 */
+	public void search(Board board, List<Board> solutions, int limit) {
+		if (board == null || solutions.size() >= limit)
+			return;
+		int depth = load(board);
+		if (depth < 0)
+			return;
+		this.solutions = solutions;
+		this.found = solutions.size();
+		this.limit = limit;
+		try {
+			search(depth);
+		} finally {
+			this.solutions = null;
+		}
+	}
+
+	/**
+	 * Counts the solutions of the given Board without creating them, stopping
+	 * as soon as the given number of solutions is reached.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param limit
+	 *            The number of solutions at which to stop counting.
+	 * @return The number of solutions, at most <code>limit</code>.
+	 */
+	public long count(Board board, long limit) {
+		if (board == null || limit <= 0)
+			return 0;
+		int depth = load(board);
+		if (depth < 0)
+			return 0;
+		this.found = 0;
+		this.limit = limit;
+		search(depth);
+		return found;
+	}
+
+	/**
+	 * Builds the matrix for the given Board and selects the rows of the marked
+	 * squares.
+	 *
+	 * @param board
+	 *            The Board to encode.
+	 * @return The number of selected rows, or -1 if the marked squares are in
+	 *         conflict.
+	 */
+	private int load(Board board) {
+		if (grid != board.getGrid())
+			allocate(board.getGrid());
+		int unit = grid.unit;
+
+		// The headers, linked in a circle
+		for (int i = 0; i <= columns; i++) {
+			left[i] = i == 0 ? columns : i - 1;
+			right[i] = i == columns ? 0 : i + 1;
+			up[i] = i;
+			down[i] = i;
+			column[i] = i;
+			size[i] = 0;
+		}
+		nodes = columns + 1;
+
+		// One matrix row for every remaining candidate
+		for (int square = 0; square < squares; square++) {
+			int r = square / values;
+			int c = square % values;
+			int s = (r / unit) * unit + c / unit;
+			int mask = board.candidates(square);
+			for (int value = 0; value < values; value++) {
+				int matrixRow = square * values + value;
+				if ((mask & (1 << value)) == 0) {
+					rowStart[matrixRow] = -1;
+					continue;
+				}
+				rowStart[matrixRow] = nodes;
+				addNode(matrixRow, 1 + square);
+				addNode(matrixRow, 1 + squares + r * values + value);
+				addNode(matrixRow, 1 + 2 * squares + c * values + value);
+				addNode(matrixRow, 1 + 3 * squares + s * values + value);
+			}
+		}
+
+		// Marked squares are selected up front
+		int depth = 0;
+		for (int square = 0; square < squares; square++) {
+			int mask = board.candidates(square);
+			if (mask == 0)
+				return -1;
+			if ((mask & (mask - 1)) != 0)
+				continue;
+			int start = rowStart[square * values + Integer.numberOfTrailingZeros(mask)];
+			// A column that is no longer in the header list was covered by an
+			// earlier marked square with the same value in the same unit.
+			int j = start;
+			do {
+				int header = column[j];
+				if (right[left[header]] != header)
+					return -1;
+				j = right[j];
+			} while (j != start);
+			select(start);
+			selected[depth++] = row[start];
+		}
+		return depth;
+	}
+
+	/**
+	 * Allocates the arrays for the given grid.
+	 *
+	 * @param grid
+	 *            The grid of the Boards to search.
+	 */
+	private void allocate(Grid grid) {
+		this.grid = grid;
+		values = grid.size;
+		squares = grid.numberOfSquares;
+		columns = 4 * squares;
+		int rows = squares * values;
+		int capacity = 1 + columns + rows * NODES_PER_ROW;
+		left = new int[capacity];
+		right = new int[capacity];
+		up = new int[capacity];
+		down = new int[capacity];
+		column = new int[capacity];
+		row = new int[capacity];
+		size = new int[1 + columns];
+		rowStart = new int[rows];
+		selected = new int[squares];
+	}
+
+	/**
+	 * Appends a node to the given matrix row and column.
+	 *
+	 * @param matrixRow
+	 *            The matrix row of the node.
+	 * @param header
+	 *            The column header of the node.
+	 */
+	private void addNode(int matrixRow, int header) {
+		int node = nodes++;
+		int start = rowStart[matrixRow];
+		row[node] = matrixRow;
+		column[node] = header;
+		// vertical: insert above the header, i.e. at the bottom
+		up[node] = up[header];
+		down[node] = header;
+		down[up[header]] = node;
+		up[header] = node;
+		size[header]++;
+		// horizontal: insert before the first node of the row
+		if (node == start) {
+			left[node] = node;
+			right[node] = node;
+		} else {
+			left[node] = left[start];
+			right[node] = start;
+			right[left[start]] = node;
+			left[start] = node;
+		}
+	}
+
+	/**
+	 * Performs Algorithm X from the current state.
+	 *
+	 * @param depth
+	 *            The number of rows selected so far.
+	 * @return <code>true</code> if the limit has been reached.
+	 */
+	private boolean search(int depth) {
+		// Solution obtained
+		if (right[ROOT] == ROOT) {
+			if (solutions != null)
+				solutions.add(toBoard(depth));
+			return ++found >= limit;
+		}
+
+		// Proceeding with the column with the fewest rows, like the minimum
+		// candidate square in the other engines.
+		int best = right[ROOT];
+		for (int header = right[best]; header != ROOT; header = right[header]) {
+			if (size[header] < size[best]) {
+				best = header;
+				if (size[best] <= 1)
+					break;
+			}
+		}
+		if (size[best] == 0)
+			return false;
+
+		// The matrix is restored even when stopping early, so that the links
+		// stay consistent.
+		boolean stop = false;
+		cover(best);
+		for (int node = down[best]; node != best && !stop; node = down[node]) {
+			selected[depth] = row[node];
+			for (int j = right[node]; j != node; j = right[j]) {
+				cover(column[j]);
+			}
+			stop = search(depth + 1);
+			for (int j = left[node]; j != node; j = left[j]) {
+				uncover(column[j]);
+			}
+		}
+		uncover(best);
+		return stop;
+	}
+
+	/**
+	 * Covers every column of the matrix row of the given node.
+	 *
+	 * @param node
+	 *            A node in the row to select.
+	 */
+	private void select(int node) {
+		int j = node;
+		do {
+			cover(column[j]);
+			j = right[j];
+		} while (j != node);
+	}
+
+	/**
+	 * Removes a column from the header list, along with every row that has a
+	 * node in it.
+	 *
+	 * @param header
+	 *            The column header.
+	 */
+	private void cover(int header) {
+		right[left[header]] = right[header];
+		left[right[header]] = left[header];
+		for (int i = down[header]; i != header; i = down[i]) {
+			for (int j = right[i]; j != i; j = right[j]) {
+				down[up[j]] = down[j];
+				up[down[j]] = up[j];
+				size[column[j]]--;
+			}
+		}
+	}
+
+	/**
+	 * Reverts {@link #cover(int)}, in the exact reverse order.
+	 *
+	 * @param header
+	 *            The column header.
+	 */
+	private void uncover(int header) {
+		for (int i = up[header]; i != header; i = up[i]) {
+			for (int j = left[i]; j != i; j = left[j]) {
+				size[column[j]]++;
+				down[up[j]] = j;
+				up[down[j]] = j;
+			}
+		}
+		right[left[header]] = header;
+		left[right[header]] = header;
+	}
+
+	/**
+	 * Converts the selected rows to a Board.
+	 *
+	 * @param depth
+	 *            The number of selected rows.
+	 * @return The corresponding Board.
+	 */
+	private Board toBoard(int depth) {
+		int[] masks = new int[squares];
+		for (int i = 0; i < depth; i++) {
+			masks[selected[i] / values] = 1 << (selected[i] % values);
+		}
+		return new Board(masks);
+	}
+}
@@ -0,0 +1,205 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Streams puzzles, one per line, and writes only the first puzzle of every
+ * class of equivalent puzzles, in the order they are read. Two puzzles are
+ * equivalent if they have the same {@link Canonicalizer canonical form}. Only
+ * the 64-bit fingerprints of the canonical forms seen so far are kept, in a
+ * {@link FingerprintSet} outside the heap, so the size of the corpus is only
+ * limited by the direct memory. Two different classes share a fingerprint
+ * with a chance of about 1 in 4000 for a corpus of 100 million classes, in
+ * which case the later one is dropped.
+ * <p>
+ * The lines are read in chunks, whose canonical forms are found on all the
+ * cores. Lines that cannot be parsed are dropped and counted. Empty lines,
+ * lines of white space only and lines starting with '#' are skipped, as in
+ * {@link BatchSolver}.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class Deduplicator {
+
+	/**
+	 * The number of lines canonicalized at once.
+	 */
+	private static final int CHUNK_SIZE = 1 << 14;
+
+	/**
+	 * The size of the I/O buffers.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The canonicalizer of each thread.
+	 */
+	private static final ThreadLocal<Canonicalizer> CANONICALIZERS = ThreadLocal.withInitial(Canonicalizer::new);
+
+	private final FingerprintSet seen;
+	private long puzzles;
+	private long invalid;
+	private long elapsed;
+
+	/**
+	 * Creates a deduplicator with room for a million classes before its set
+	 * has to grow.
+	 */
+	public Deduplicator() {
+		this(1 << 20);
+	}
+
+	/**
+	 * Creates a deduplicator with room for the given number of classes before
+	 * its set has to grow.
+	 *
+	 * @param expected
+	 *            The expected number of distinct puzzles.
+	 */
+	public Deduplicator(long expected) {
+		seen = new FingerprintSet(expected);
+	}
+
+	/**
+	 * Deduplicates the puzzles in a file into another one. A '-' (or a
+	 * missing argument) stands for the standard input or output. The third
+	 * argument, if present, is the expected number of distinct puzzles. The
+	 * report is printed to the standard error.
+	 *
+	 * @param args
+	 *            The input file, the output file and the expected number of
+	 *            distinct puzzles.
+	 * @throws IOException
+	 *             If a file cannot be read or written.
+	 */
+	public static void main(String[] args) throws IOException {
+		String input = args.length > 0 ? args[0] : "-";
+		String output = args.length > 1 ? args[1] : "-";
+		Deduplicator deduplicator = args.length > 2 ? new Deduplicator(Long.parseLong(args[2])) : new Deduplicator();
+		try (InputStream in = input.equals("-") ? System.in : new FileInputStream(input);
+				OutputStream out = output.equals("-") ? new BatchSolver.NonClosingStream(System.out)
+						: new FileOutputStream(output)) {
+			deduplicator.deduplicate(in, out);
+		}
+		deduplicator.report(System.err);
+	}
+
+	/**
+	 * Writes the first puzzle of every class read from the stream to the
+	 * other stream. The streams are not closed, and the classes seen are
+	 * remembered across calls.
+	 *
+	 * @param in
+	 *            The stream of puzzles.
+	 * @param out
+	 *            The stream to write the distinct puzzles to.
+	 * @throws IOException
+	 *             If a stream cannot be read or written.
+	 */
+	public void deduplicate(InputStream in, OutputStream out) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII), BUFFER_SIZE);
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), BUFFER_SIZE);
+		long start = System.nanoTime();
+		List<String> lines = new ArrayList<>(CHUNK_SIZE);
+		long[] fingerprints = new long[CHUNK_SIZE];
+		boolean[] valid = new boolean[CHUNK_SIZE];
+		String line;
+		do {
+			line = reader.readLine();
+			if (line != null && !BatchSolver.isSkipped(line))
+				lines.add(line);
+			if (lines.size() == CHUNK_SIZE || (line == null && !lines.isEmpty())) {
+				IntStream.range(0, lines.size())
+						.parallel()
+						.forEach(i -> valid[i] = fingerprint(lines.get(i), fingerprints, i));
+				for (int i = 0; i < lines.size(); i++) {
+					puzzles++;
+					if (!valid[i]) {
+						invalid++;
+					} else if (seen.add(fingerprints[i])) {
+						writer.write(lines.get(i));
+						writer.write('\n');
+					}
+				}
+				lines.clear();
+			}
+		} while (line != null);
+		writer.flush();
+		elapsed += System.nanoTime() - start;
+	}
+
+	/**
+	 * Adds the given puzzle to the classes seen.
+	 *
+	 * @param board
+	 *            The puzzle.
+	 * @return <code>true</code> if no equivalent puzzle was seen before.
+	 */
+	public boolean add(Board board) {
+		puzzles++;
+		return seen.add(CANONICALIZERS.get().fingerprint(board));
+	}
+
+	/**
+	 * Stores the fingerprint of the canonical form of the line at the given
+	 * index.
+	 *
+	 * @return <code>false</code> if the line is not a standard puzzle.
+	 */
+	private static boolean fingerprint(String line, long[] fingerprints, int index) {
+		try {
+			fingerprints[index] = CANONICALIZERS.get().fingerprint(Parser.parse(line));
+			return true;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the number of distinct puzzles seen.
+	 *
+	 * @return The number of distinct puzzles seen.
+	 */
+	public long getDistinct() {
+		return seen.size();
+	}
+
+	/**
+	 * Returns the number of puzzles seen, including the invalid ones.
+	 *
+	 * @return The number of puzzles seen.
+	 */
+	public long getPuzzles() {
+		return puzzles;
+	}
+
+	/**
+	 * Prints the counts, the throughput and the memory of the set.
+	 *
+	 * @param out
+	 *            The stream to print to.
+	 */
+	public void report(PrintStream out) {
+		long distinct = seen.size();
+		double seconds = elapsed / 1e9;
+		out.printf("puzzles    %d (distinct %d, duplicates %d, invalid %d)%n", puzzles, distinct,
+				puzzles - distinct - invalid, invalid);
+		out.printf("time       %.3f s, %.0f puzzles/s%n", seconds, seconds > 0 ? puzzles / seconds : 0.0);
+		out.printf("memory     %.1f MiB off-heap%n", seen.getMemory() / (1024.0 * 1024.0));
+	}
+}
@@ -0,0 +1,31 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * The available search engines. All of them accept the same Board and produce
+ * the same solutions, so their results can be cross-checked.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public enum Engine {
+    /**
+     * Constraint propagation with a DFS that creates a new immutable Board
+     * for every branch.
+     */
+    PROPAGATION,
+    /**
+     * Constraint propagation with a DFS that works in place on a single state
+     * and undoes its changes when backtracking. See {@link TrailSearch}.
+     */
+    TRAIL,
+    /**
+     * Knuth's Algorithm X on the exact-cover form of the grid, implemented
+     * with Dancing Links. See {@link DancingLinks}.
+     */
+    DANCING_LINKS,
+    /**
+     * The trail search, with the top levels of the tree split across the
+     * threads of the common fork/join pool. See {@link ParallelSearch}.
+     */
+    PARALLEL
+}
@@ -0,0 +1,136 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.Set;
+
+/**
+ * The {@link Solver} built by {@link Solver.Builder}. The engines that keep
+ * state between the nodes of a search, {@link TrailSearch} and
+ * {@link DancingLinks}, are created once per thread and reused; the other two
+ * are shared, since they keep no state of their own. Every solve is reported
+ * as a {@link SolveEvent} when the runtime has the Flight Recorder.
+ * <p>
+ * Every solve of the trail and the propagation engines gets a {@link Budget},
+ * so that they can always be cancelled or interrupted. The other engines only
+ * look at the token and the interrupt status before they start.
+ * <p>
+ * A caller that already limits the number of solves at once, such as
+ * {@link SolveServer}, can keep its own trail searches instead, created by
+ * {@link #newTrailSearch()}, and hand one to every solve.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+final class EngineSolver implements Solver {
+
+	private final Engine engine;
+	private final Set<Rule> rules;
+	private final TieBreak tieBreak;
+	private final int limit;
+	private final long timeout;
+	private final long nodeBudget;
+
+	/**
+	 * The search of each thread, for the trail engine.
+	 */
+	private final ThreadLocal<TrailSearch> trailSearches;
+
+	/**
+	 * The search of each thread, for the dancing links engine.
+	 */
+	private final ThreadLocal<DancingLinks> dancingLinks;
+
+	private final PropagationSearch propagationSearch;
+	private final ParallelSearch parallelSearch;
+
+	EngineSolver(Engine engine, Set<Rule> rules, TieBreak tieBreak, int limit, long timeout, long nodeBudget) {
+		this.engine = engine;
+		this.rules = rules;
+		this.tieBreak = tieBreak;
+		this.limit = limit;
+		this.timeout = timeout;
+		this.nodeBudget = nodeBudget;
+		trailSearches = engine == Engine.TRAIL ? ThreadLocal.withInitial(this::newTrailSearch) : null;
+		dancingLinks = engine == Engine.DANCING_LINKS ? ThreadLocal.withInitial(DancingLinks::new) : null;
+		propagationSearch = engine == Engine.PROPAGATION ? new PropagationSearch(rules) : null;
+		parallelSearch = engine == Engine.PARALLEL ? new ParallelSearch() : null;
+	}
+
+	@Override
+	public SolveResult solve(Board board, CancellationToken token) {
+		return solve(board, token, trailSearches != null ? trailSearches.get() : null);
+	}
+
+	/**
+	 * Solves like {@link #solve(Board, CancellationToken)}, with the given
+	 * search instead of the one of this thread.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param token
+	 *            The token that cancels the search, or <code>null</code>.
+	 * @param trailSearch
+	 *            A search from {@link #newTrailSearch()} that no other thread
+	 *            is using, ignored by the other engines.
+	 * @return The solutions and the statistics of the search.
+	 */
+	SolveResult solve(Board board, CancellationToken token, TrailSearch trailSearch) {
+		if (!FlightRecorderSupport.AVAILABLE)
+			return search(board, token, trailSearch);
+		SolveEvent event = new SolveEvent();
+		event.begin();
+		SolveResult result = search(board, token, trailSearch);
+		event.commit(engine, board, result);
+		return result;
+	}
+
+	/**
+	 * Creates a trail search with the rules and the tie-break of this solver.
+	 *
+	 * @return A new search for
+	 *         {@link #solve(Board, CancellationToken, TrailSearch)}.
+	 */
+	TrailSearch newTrailSearch() {
+		return new TrailSearch(rules, tieBreak);
+	}
+
+	private SolveResult search(Board board, CancellationToken token, TrailSearch trailSearch) {
+		switch (engine) {
+		case TRAIL:
+			return trailSearch.solve(board, limit, new Budget(timeout, nodeBudget, token));
+		case PROPAGATION:
+			return propagationSearch.solve(board, limit, new Budget(timeout, nodeBudget, token));
+		default:
+			SolveResult result = new SolveResult();
+			long start = System.nanoTime();
+			if ((token != null && token.isCancelled()) || Thread.currentThread().isInterrupted()) {
+				result.status = SolveStatus.ABORTED;
+			} else if (engine == Engine.DANCING_LINKS) {
+				dancingLinks.get().search(board, result.solutions, limit);
+			} else {
+				parallelSearch.search(board, result.solutions, limit);
+			}
+			result.limitReached = result.solutions.size() >= limit;
+			result.totalNanos = System.nanoTime() - start;
+			return result;
+		}
+	}
+
+	@Override
+	public long count(Board board) {
+		switch (engine) {
+		case TRAIL:
+			return trailSearches.get().count(board, limit);
+		case PROPAGATION:
+			return propagationSearch.count(board, limit);
+		case DANCING_LINKS:
+			return dancingLinks.get().count(board, limit);
+		default:
+			return parallelSearch.count(board, limit);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Solver[" + engine + ", limit " + limit + "]";
+	}
+}
@@ -0,0 +1,183 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * A set of 64-bit fingerprints kept outside the heap, so that it can hold
+ * hundreds of millions of them without a huge heap or long garbage
+ * collections. It is an open addressing table with linear probing, split into
+ * direct buffers of at most 1 GiB each, and doubles once it is three quarters
+ * full. A slot takes 8 bytes and the table is between three eighths and three
+ * quarters full, so each fingerprint takes about 10.7 to 21.3 bytes, and 100
+ * million of them need about 1 to 2 GiB of direct memory (see
+ * <code>-XX:MaxDirectMemorySize</code>). While the table doubles, the old and
+ * the new one are both allocated, and the old one is only freed once it is
+ * garbage collected, so growing from 1 to 2 GiB needs 3 GiB at the peak.
+ * <p>
+ * It is not thread-safe.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public final class FingerprintSet {
+
+	/**
+	 * The base 2 logarithm of the number of slots of a full segment.
+	 */
+	private static final int SEGMENT_SHIFT = 27;
+
+	/**
+	 * The smallest number of slots.
+	 */
+	private static final int MINIMUM_SLOTS = 1 << 10;
+
+	private LongBuffer[] segments;
+
+	/**
+	 * The base 2 logarithm of the number of slots.
+	 */
+	private int bits;
+
+	/**
+	 * The number of fingerprints, besides 0.
+	 */
+	private long size;
+
+	/**
+	 * Whether 0, which marks the empty slots, is in the set.
+	 */
+	private boolean containsZero;
+
+	/**
+	 * Creates a set with room for the given number of fingerprints before it
+	 * has to grow.
+	 *
+	 * @param expected
+	 *            The expected number of fingerprints.
+	 */
+	public FingerprintSet(long expected) {
+		long slots = MINIMUM_SLOTS;
+		while (slots * 3 / 4 < expected) {
+			slots <<= 1;
+		}
+		allocate(Long.numberOfTrailingZeros(slots));
+	}
+
+	/**
+	 * Adds the fingerprint to the set.
+	 *
+	 * @param fingerprint
+	 *            The fingerprint to add.
+	 * @return <code>true</code> if it was not in the set before.
+	 */
+	public boolean add(long fingerprint) {
+		if (fingerprint == 0) {
+			boolean added = !containsZero;
+			containsZero = true;
+			return added;
+		}
+		long mask = (1L << bits) - 1;
+		for (long slot = slot(fingerprint);; slot = (slot + 1) & mask) {
+			long stored = get(slot);
+			if (stored == fingerprint)
+				return false;
+			if (stored == 0) {
+				put(slot, fingerprint);
+				if (++size > (3L << bits) / 4)
+					grow();
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the fingerprint is in the set.
+	 *
+	 * @param fingerprint
+	 *            The fingerprint to look for.
+	 * @return <code>true</code> if the fingerprint is in the set.
+	 */
+	public boolean contains(long fingerprint) {
+		if (fingerprint == 0)
+			return containsZero;
+		long mask = (1L << bits) - 1;
+		for (long slot = slot(fingerprint);; slot = (slot + 1) & mask) {
+			long stored = get(slot);
+			if (stored == fingerprint)
+				return true;
+			if (stored == 0)
+				return false;
+		}
+	}
+
+	/**
+	 * Returns the number of fingerprints in the set.
+	 *
+	 * @return The number of fingerprints in the set.
+	 */
+	public long size() {
+		return containsZero ? size + 1 : size;
+	}
+
+	/**
+	 * Returns the number of bytes of direct memory the set uses.
+	 *
+	 * @return The number of bytes of direct memory the set uses.
+	 */
+	public long getMemory() {
+		return 8L << bits;
+	}
+
+	/**
+	 * Returns the first slot to try for the fingerprint. The multiplication
+	 * spreads fingerprints that are not random, such as small numbers.
+	 */
+	private long slot(long fingerprint) {
+		return (fingerprint * 0x9e3779b97f4a7c15L) >>> (64 - bits);
+	}
+
+	private long get(long slot) {
+		return segments[(int) (slot >>> SEGMENT_SHIFT)].get((int) (slot & ((1 << SEGMENT_SHIFT) - 1)));
+	}
+
+	private void put(long slot, long fingerprint) {
+		segments[(int) (slot >>> SEGMENT_SHIFT)].put((int) (slot & ((1 << SEGMENT_SHIFT) - 1)), fingerprint);
+	}
+
+	/**
+	 * Allocates zeroed segments for the given number of slots.
+	 */
+	private void allocate(int bits) {
+		this.bits = bits;
+		int segmentBits = Math.min(bits, SEGMENT_SHIFT);
+		segments = new LongBuffer[1 << (bits - segmentBits)];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = ByteBuffer.allocateDirect(8 << segmentBits).order(ByteOrder.nativeOrder()).asLongBuffer();
+		}
+	}
+
+	/**
+	 * Doubles the number of slots and adds the fingerprints again. The old
+	 * segments stay allocated till the end, so this needs three times the
+	 * memory of the old table.
+	 */
+	private void grow() {
+		LongBuffer[] old = segments;
+		allocate(bits + 1);
+		long mask = (1L << bits) - 1;
+		for (LongBuffer segment : old) {
+			for (int i = 0; i < segment.capacity(); i++) {
+				long fingerprint = segment.get(i);
+				if (fingerprint == 0)
+					continue;
+				long slot = slot(fingerprint);
+				while (get(slot) != 0) {
+					slot = (slot + 1) & mask;
+				}
+				put(slot, fingerprint);
+			}
+		}
+	}
+}
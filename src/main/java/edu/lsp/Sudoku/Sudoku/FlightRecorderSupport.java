@@ -0,0 +1,35 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * Tells whether the Java Flight Recorder can be used. The event classes
+ * extend <code>jdk.jfr.Event</code>, so they cannot be loaded on a runtime
+ * without the <code>jdk.jfr</code> module, such as a jlink image without it.
+ * Code that records events only touches them once {@link #AVAILABLE} is
+ * <code>true</code>; the event classes are resolved on first use, so the
+ * code that refers to them still loads and runs without the module.
+ * <p>
+ * Only {@link Solver}s and {@link PuzzleGenerator} record events. The search
+ * engines used on their own never touch them.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+final class FlightRecorderSupport {
+
+	/**
+	 * <code>true</code> if the <code>jdk.jfr</code> module is present.
+	 */
+	static final boolean AVAILABLE = isAvailable();
+
+	private FlightRecorderSupport() {
+	}
+
+	private static boolean isAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event", false, FlightRecorderSupport.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+}
@@ -1,17 +1,20 @@
 package edu.lsp.Sudoku.Sudoku;
 
-import java.util.Random;
-
-import static edu.lsp.Sudoku.Sudoku.Constants.*;
+import java.util.SplittableRandom;
 
 /**
  * This class is responsible for randomly generating Game states.
  * <p>
- * This uses a 2D array instead of a map because the former is easier to
- * manipulate and transform.
+ * The grids are generated in a flat array of values, one per square in the
+ * order of {@link Grid#getSquares()}, from a fixed pattern. A random element
+ * of the symmetry group of the grid is then applied in place: relabeling the
+ * values, transposing, and permuting the bands, the stacks, the rows within
+ * each band and the columns within each stack. Together these reach every
+ * grid that is equivalent to the pattern, without allocating anything, and
+ * the same seed always gives the same grid.
  * <p>
- * To obtain a map from the 2D array, call {@link Parser#parse(int[][])
- * <code>Parser.parse(int[][])</code>}.
+ * To obtain a Board from the 2D array of {@link #generateSolved()}, call
+ * {@link Parser#parse(int[][]) <code>Parser.parse(int[][])</code>}.
  *
  * @author Subhomoy Haldar
  * @version 1.0
@@ -25,127 +28,161 @@ public class Generator {
 	 * @return A 2D array with a solved Sudoku grid.
 	 */
 	public static int[][] generateSolved() {
-		int[][] array = new int[SIZE][SIZE];
-		for (int i = 0; i < SIZE; i++) {
-			for (int j = 0; j < SIZE; j++) {
-				array[i][j] = (i * UNIT + i / UNIT + j) % SIZE + 1;
-			}
-		}
-		Random random = new Random();
-		int limit = random.nextInt(Constants.MAX_SHUFFLE);
-		for (int i = 0; i < limit; i++) {
-			if (random.nextBoolean())
-				transpose(array);
-			if (random.nextBoolean())
-				shuffleSquareRows(array);
-			if (random.nextBoolean())
-				shuffleSingleRows(array);
-		}
-		return array;
+		return generateSolved(Grid.STANDARD);
 	}
 
 	/**
-	 * Transposes the given square matrix/2D array.
+	 * This method generated a shuffled array of the given grid containing all
+	 * the values filled in.
 	 *
-	 * @param array
-	 *            The array to be transposed.
+	 * @param grid
+	 *            The geometry of the grid.
+	 * @return A 2D array with a solved Sudoku grid.
 	 */
-	public static void transpose(int[][] array) {
-		for (int i = 0; i < array.length; i++) {
-			for (int j = 0; j < i; j++) {
-				int temp = array[i][j];
-				array[i][j] = array[j][i];
-				array[j][i] = temp;
-			}
+	public static int[][] generateSolved(Grid grid) {
+		int size = grid.size;
+		int[] values = new int[grid.numberOfSquares];
+		generateSolved(values, new SplittableRandom());
+		int[][] array = new int[size][size];
+		for (int i = 0; i < size; i++) {
+			System.arraycopy(values, i * size, array[i], 0, size);
 		}
+		return array;
 	}
 
 	/**
-	 * Shuffles square rows in their entirety, i.e. moves 3 rows at a time.
+	 * Fills the given flat array with a random solved grid. The length of the
+	 * array selects the grid.
 	 *
-	 * @param array
-	 *            The array to be transformed.
+	 * @param values
+	 *            The array to fill with values from 1 to the size of the grid.
+	 * @param random
+	 *            The source of randomness.
 	 */
-	private static void shuffleSquareRows(int[][] array) {
-		Random random = new Random();
-		for (int i = 0; i < UNIT - 1; i++) {
-			int j = 1 + i + random.nextInt(UNIT - 1 - i);
-			swapSquareRows(array, i, j);
+	public static void generateSolved(int[] values, SplittableRandom random) {
+		Grid grid = Grid.ofSquares(values.length);
+		int unit = grid.unit;
+		int size = grid.size;
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				values[i * size + j] = (i * unit + i / unit + j) % size + 1;
+			}
 		}
+		transform(values, random);
 	}
 
 	/**
-	 * Shuffles single rows within each square row.
+	 * Applies a random element of the symmetry group of the grid to the given
+	 * solved (or partly solved) grid, in place. Every element is equally
+	 * likely. Empty squares (0) stay empty.
 	 *
-	 * @param array
-	 *            The array to be transformed.
+	 * @param values
+	 *            The flat array of values to transform. Its length selects the
+	 *            grid.
+	 * @param random
+	 *            The source of randomness.
 	 */
-	private static void shuffleSingleRows(int[][] array) {
-		Random random = new Random();
-		for (int i = 0; i < UNIT; i++) {
-			int start = i * UNIT;
-			int limit = start + UNIT - 1;
-			for (int j = start; j < limit; j++) {
-				int k = start + 1 + random.nextInt(limit - j);
-				swapSingleRows(array, j, k);
+	public static void transform(int[] values, SplittableRandom random) {
+		Grid grid = Grid.ofSquares(values.length);
+		int unit = grid.unit;
+		int size = grid.size;
+
+		// Each shuffle is a Fisher-Yates shuffle done with swaps
+		for (int i = size - 1; i > 0; i--) {
+			relabel(values, i + 1, random.nextInt(i + 1) + 1);
+		}
+		if (random.nextBoolean())
+			transpose(values, size);
+		for (int i = unit - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			for (int k = 0; k < unit; k++) {
+				swapRows(values, size, i * unit + k, j * unit + k);
+			}
+		}
+		for (int i = unit - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			for (int k = 0; k < unit; k++) {
+				swapColumns(values, size, i * unit + k, j * unit + k);
+			}
+		}
+		for (int band = 0; band < unit; band++) {
+			int start = band * unit;
+			for (int i = unit - 1; i > 0; i--) {
+				swapRows(values, size, start + i, start + random.nextInt(i + 1));
+			}
+			for (int i = unit - 1; i > 0; i--) {
+				swapColumns(values, size, start + i, start + random.nextInt(i + 1));
 			}
 		}
 	}
 
 	/**
-	 * Swaps two rows within a square.
-	 *
-	 * @param array
-	 *            The array to be transformed.
-	 * @param i
-	 *            The first row.
-	 * @param j
-	 *            The second row.
+	 * Swaps the two given values everywhere in the grid.
 	 */
-	private static void swapSingleRows(int[][] array, int i, int j) {
-		int[] temp = new int[SIZE];
-		System.arraycopy(array[i], 0, temp, 0, SIZE);
-		System.arraycopy(array[j], 0, array[i], 0, SIZE);
-		System.arraycopy(temp, 0, array[j], 0, SIZE);
+	private static void relabel(int[] values, int a, int b) {
+		if (a == b)
+			return;
+		for (int square = 0; square < values.length; square++) {
+			int value = values[square];
+			if (value == a)
+				values[square] = b;
+			else if (value == b)
+				values[square] = a;
+		}
 	}
 
 	/**
-	 * Swaps 6 rows at a time. Swaps the ith square row with the jth one.
-	 *
-	 * @param array
-	 *            The array to be transformed.
-	 * @param i
-	 *            The first row.
-	 * @param j
-	 *            The second row.
+	 * Swaps two rows of a flat grid.
 	 */
-	private static void swapSquareRows(int[][] array, int i, int j) {
-		// if (i == j) return;
-		int[][] temp = new int[UNIT][SIZE];
-		int iStart = i * UNIT;
-		int jStart = j * UNIT;
-		int iLimit = iStart + UNIT;
-		int jLimit = jStart + UNIT;
-		// copy to temp
-		for (int k = iStart, l = 0; k < iLimit; k++, l++) {
-			System.arraycopy(array[k], 0, temp[l], 0, SIZE);
-		}
-		// copy to array[i] & following
-		for (int k = iStart, l = jStart; k < iLimit; k++, l++) {
-			System.arraycopy(array[l], 0, array[k], 0, SIZE);
+	private static void swapRows(int[] values, int size, int i, int j) {
+		if (i == j)
+			return;
+		for (int k = 0, a = i * size, b = j * size; k < size; k++, a++, b++) {
+			int temp = values[a];
+			values[a] = values[b];
+			values[b] = temp;
 		}
-		// copy to array[j] & following
-		for (int k = jStart, l = 0; k < jLimit; k++, l++) {
-			System.arraycopy(temp[l], 0, array[k], 0, SIZE);
+	}
+
+	/**
+	 * Swaps two columns of a flat grid.
+	 */
+	private static void swapColumns(int[] values, int size, int i, int j) {
+		if (i == j)
+			return;
+		for (int a = i, b = j; a < values.length; a += size, b += size) {
+			int temp = values[a];
+			values[a] = values[b];
+			values[b] = temp;
 		}
 	}
 
-	// private static String toString(int[][] array) {
-	// StringBuilder builder = new StringBuilder();
-	// for (int[] row : array) {
-	// builder.append(Arrays.toString(row)).append("\n");
-	// }
-	// return builder.toString();
-	// }
+	/**
+	 * Transposes a flat grid.
+	 */
+	private static void transpose(int[] values, int size) {
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < i; j++) {
+				int temp = values[i * size + j];
+				values[i * size + j] = values[j * size + i];
+				values[j * size + i] = temp;
+			}
+		}
+	}
 
+	/**
+	 * Transposes the given square matrix/2D array.
+	 *
+	 * @param array
+	 *            The array to be transposed.
+	 */
+	public static void transpose(int[][] array) {
+		for (int i = 0; i < array.length; i++) {
+			for (int j = 0; j < i; j++) {
+				int temp = array[i][j];
+				array[i][j] = array[j][i];
+				array[j][i] = temp;
+			}
+		}
+	}
 }
@@ -0,0 +1,40 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event for a batch of puzzles generated by
+ * {@link PuzzleGenerator#generate(int, java.util.SplittableRandom)}.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+@Name(GeneratorBatchEvent.NAME)
+@Label("Generator Batch")
+@Category("Sudoku")
+@Description("A batch of puzzles with exactly one solution")
+final class GeneratorBatchEvent extends Event {
+
+	static final String NAME = "edu.lsp.Sudoku.GeneratorBatch";
+
+	@Label("Puzzles")
+	int puzzles;
+
+	@Label("Size")
+	@Description("The number of values of the grid")
+	int size;
+
+	@Label("Target Clues")
+	int targetClues;
+
+	@Label("Symmetry")
+	String symmetry;
+
+	@Label("Clues")
+	@Description("The total number of clues of the puzzles")
+	long clues;
+}
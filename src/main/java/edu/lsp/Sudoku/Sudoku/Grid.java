@@ -0,0 +1,352 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The geometry of a grid of a given size: the units, the peers and the
+ * symbols of the values. {@link Constants} holds the tables of the standard
+ * 9x9 grid; the other sizes (4x4, 16x16 and 25x25) are described by the
+ * instances returned by {@link #of(int)}, which are created once and shared.
+ * <p>
+ * The candidates of a square are still stored as an <code>int</code> bit
+ * mask, which has room for up to 25 values, so the largest supported grid
+ * is 25x25. The rows are labelled from 'A' and the columns from 1, so the
+ * squares of a 16x16 grid run from "A1" to "P16".
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public final class Grid {
+
+	/**
+	 * The largest supported side of the smaller square unit.
+	 */
+	public static final int MAX_UNIT = 5;
+
+	/**
+	 * The symbols of the values, in order. The first {@link #size} of them
+	 * are used by a grid.
+	 */
+	private static final String SYMBOLS = "123456789ABCDEFGHIJKLMNOP";
+
+	/**
+	 * The grids, indexed by the side of their smaller square unit.
+	 */
+	private static final Grid[] GRIDS = new Grid[MAX_UNIT + 1];
+
+	static {
+		for (int unit = 2; unit <= MAX_UNIT; unit++) {
+			GRIDS[unit] = new Grid(unit);
+		}
+	}
+
+	/**
+	 * The standard 9x9 grid.
+	 */
+	public static final Grid STANDARD = GRIDS[3];
+
+	/**
+	 * The side of the smaller square unit.
+	 */
+	final int unit;
+
+	/**
+	 * The number of squares in one unit, which is also the number of values.
+	 */
+	final int size;
+
+	/**
+	 * The total number of squares.
+	 */
+	final int numberOfSquares;
+
+	/**
+	 * The bit mask with every candidate set.
+	 */
+	final int allCandidates;
+
+	/**
+	 * The symbols of the values, in order.
+	 */
+	final String candidates;
+
+	/**
+	 * The index of the value of every ASCII character, or -1 if it is not a
+	 * symbol of this grid. Lower case letters are accepted as well.
+	 */
+	private final byte[] symbolIndices = new byte[128];
+
+	/**
+	 * The mask that every 8-bit character stands for when parsing: the value
+	 * of a symbol, every candidate for '0' and '.', and 0 for the characters
+	 * that are skipped.
+	 */
+	final int[] symbolMasks = new int[256];
+
+	/**
+	 * The labels of the squares, in index order.
+	 */
+	final List<String> squares;
+
+	/**
+	 * The map between every square label and its index.
+	 */
+	final Map<String, Integer> squareIndices;
+
+	/**
+	 * The squares of every unit: the rows, then the columns, then the square
+	 * units.
+	 */
+	final int[][] unitIndices;
+
+	/**
+	 * The peers of every square, sorted.
+	 */
+	final int[][] peerIndices;
+
+	/**
+	 * The indices (into {@link #unitIndices}) of the units of every square.
+	 */
+	final int[][] squareUnits;
+
+	/**
+	 * Creates the tables of the grid with the given unit.
+	 *
+	 * @param unit
+	 *            The side of the smaller square unit.
+	 */
+	private Grid(int unit) {
+		this.unit = unit;
+		this.size = unit * unit;
+		this.numberOfSquares = size * size;
+		this.allCandidates = (1 << size) - 1;
+		this.candidates = SYMBOLS.substring(0, size);
+		Arrays.fill(symbolIndices, (byte) -1);
+		for (int i = 0; i < size; i++) {
+			char symbol = candidates.charAt(i);
+			symbolIndices[symbol] = (byte) i;
+			symbolIndices[Character.toLowerCase(symbol)] = (byte) i;
+		}
+		symbolMasks['0'] = allCandidates;
+		symbolMasks['.'] = allCandidates;
+		for (int c = 0; c < symbolIndices.length; c++) {
+			if (symbolIndices[c] > -1)
+				symbolMasks[c] = 1 << symbolIndices[c];
+		}
+
+		List<String> squareList = new ArrayList<>(numberOfSquares);
+		Map<String, Integer> indexMap = new HashMap<>(numberOfSquares * 2);
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				String square = "" + (char) ('A' + row) + (col + 1);
+				indexMap.put(square, squareList.size());
+				squareList.add(square);
+			}
+		}
+		squares = Collections.unmodifiableList(squareList);
+		squareIndices = Collections.unmodifiableMap(indexMap);
+
+		unitIndices = new int[3 * size][size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				// The ith row, the ith column and the ith square unit
+				unitIndices[i][j] = i * size + j;
+				unitIndices[size + i][j] = j * size + i;
+				unitIndices[2 * size + i][j] = ((i / unit) * unit + j / unit) * size + (i % unit) * unit + j % unit;
+			}
+		}
+
+		squareUnits = new int[numberOfSquares][3];
+		int[] unitsFound = new int[numberOfSquares];
+		for (int u = 0; u < unitIndices.length; u++) {
+			for (int square : unitIndices[u]) {
+				squareUnits[square][unitsFound[square]++] = u;
+			}
+		}
+
+		peerIndices = new int[numberOfSquares][];
+		boolean[] isPeer = new boolean[numberOfSquares];
+		for (int square = 0; square < numberOfSquares; square++) {
+			Arrays.fill(isPeer, false);
+			for (int u : squareUnits[square]) {
+				for (int peer : unitIndices[u]) {
+					isPeer[peer] = true;
+				}
+			}
+			isPeer[square] = false;
+			int[] peers = new int[3 * size - 2 * unit - 1];
+			int count = 0;
+			for (int peer = 0; peer < numberOfSquares; peer++) {
+				if (isPeer[peer])
+					peers[count++] = peer;
+			}
+			peerIndices[square] = peers;
+		}
+	}
+
+	/**
+	 * Returns the grid whose smaller square unit has the given side.
+	 *
+	 * @param unit
+	 *            The side of the smaller square unit, from 2 to
+	 *            {@link #MAX_UNIT}.
+	 * @return The grid whose smaller square unit has the given side.
+	 * @throws IllegalArgumentException
+	 *             If the size is not supported.
+	 */
+	public static Grid of(int unit) {
+		if (unit < 2 || unit > MAX_UNIT)
+			throw new IllegalArgumentException("Unsupported unit: " + unit);
+		return GRIDS[unit];
+	}
+
+	/**
+	 * Returns the grid with the given number of values (and squares in a
+	 * unit).
+	 *
+	 * @param size
+	 *            The number of values, such as 9 or 16.
+	 * @return The grid with the given number of values.
+	 * @throws IllegalArgumentException
+	 *             If the size is not supported.
+	 */
+	public static Grid ofSize(int size) {
+		for (int unit = 2; unit <= MAX_UNIT; unit++) {
+			if (GRIDS[unit].size == size)
+				return GRIDS[unit];
+		}
+		throw new IllegalArgumentException("Unsupported size: " + size);
+	}
+
+	/**
+	 * Returns the grid with the given total number of squares.
+	 *
+	 * @param numberOfSquares
+	 *            The total number of squares, such as 81 or 256.
+	 * @return The grid with the given total number of squares.
+	 * @throws IllegalArgumentException
+	 *             If the size is not supported.
+	 */
+	static Grid ofSquares(int numberOfSquares) {
+		if (numberOfSquares == STANDARD.numberOfSquares)
+			return STANDARD;
+		for (int unit = 2; unit <= MAX_UNIT; unit++) {
+			if (GRIDS[unit].numberOfSquares == numberOfSquares)
+				return GRIDS[unit];
+		}
+		throw new IllegalArgumentException("Unsupported number of squares: " + numberOfSquares);
+	}
+
+	/**
+	 * Returns the side of the smaller square unit.
+	 *
+	 * @return The side of the smaller square unit.
+	 */
+	public int getUnit() {
+		return unit;
+	}
+
+	/**
+	 * Returns the number of values, which is also the side of the grid.
+	 *
+	 * @return The number of values.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the total number of squares.
+	 *
+	 * @return The total number of squares.
+	 */
+	public int getNumberOfSquares() {
+		return numberOfSquares;
+	}
+
+	/**
+	 * Returns the String containing the symbols of all the values.
+	 *
+	 * @return The String containing the symbols of all the values.
+	 */
+	public String getCandidates() {
+		return candidates;
+	}
+
+	/**
+	 * Returns the labels of all the squares, in index order.
+	 *
+	 * @return The labels of all the squares.
+	 */
+	public List<String> getSquares() {
+		return squares;
+	}
+
+	/**
+	 * Returns the index of the value with the given symbol, or -1 if it is not
+	 * a symbol of this grid.
+	 *
+	 * @param symbol
+	 *            The character to look up.
+	 * @return The index of the value, from 0 to <code>size - 1</code>.
+	 */
+	int indexOf(int symbol) {
+		return symbol >= 0 && symbol < symbolIndices.length ? symbolIndices[symbol] : -1;
+	}
+
+	/**
+	 * Returns the symbol of the single value of a mask, or '.' if the mask
+	 * does not have exactly one value.
+	 *
+	 * @param mask
+	 *            The candidate mask.
+	 * @return The symbol of the single value of the mask.
+	 */
+	char symbol(int mask) {
+		return mask != 0 && (mask & (mask - 1)) == 0 ? candidates.charAt(Integer.numberOfTrailingZeros(mask)) : '.';
+	}
+
+	/**
+	 * Returns the String of candidates represented by the given bit mask.
+	 *
+	 * @param mask
+	 *            The bit mask to convert.
+	 * @return The String of candidates represented by the given bit mask.
+	 */
+	public String toCandidates(int mask) {
+		StringBuilder builder = new StringBuilder(Integer.bitCount(mask));
+		for (int bits = mask; bits != 0; bits &= bits - 1) {
+			builder.append(candidates.charAt(Integer.numberOfTrailingZeros(bits)));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Returns the bit mask of the given String of candidates. Characters that
+	 * are not candidates are ignored.
+	 *
+	 * @param candidates
+	 *            The String of candidates to convert.
+	 * @return The bit mask of the given String of candidates.
+	 */
+	public int toMask(String candidates) {
+		int mask = 0;
+		for (int i = 0; i < candidates.length(); i++) {
+			int index = indexOf(candidates.charAt(i));
+			if (index > -1) {
+				mask |= 1 << index;
+			}
+		}
+		return mask;
+	}
+
+	@Override
+	public String toString() {
+		return size + "x" + size;
+	}
+}
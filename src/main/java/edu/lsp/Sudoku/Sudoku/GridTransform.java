@@ -0,0 +1,82 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * An element of the symmetry group of the standard grid: a permutation of
+ * the squares (made of a transposition and permutations of the rows and the
+ * columns that keep the bands and the stacks together) followed by a
+ * relabeling of the values. It is returned by
+ * {@link Canonicalizer#canonicalize(int[], int[])} and maps a puzzle to its
+ * canonical form, and the canonical form (or its solution) back.
+ * <p>
+ * Values are flat arrays of {@link Constants#NUMBER_OF_SQUARES} values from
+ * 1 to 9, with 0 for an empty square. Instances are immutable.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public final class GridTransform {
+
+	/**
+	 * The original square of every transformed square.
+	 */
+	private final int[] squares;
+
+	/**
+	 * The transformed value of every original value, with 0 kept as 0.
+	 */
+	private final int[] labels;
+
+	/**
+	 * The original value of every transformed value, with 0 kept as 0.
+	 */
+	private final int[] values;
+
+	/**
+	 * Creates a transform that takes ownership of the given arrays.
+	 *
+	 * @param squares
+	 *            The original square of every transformed square.
+	 * @param labels
+	 *            The transformed value of every original value, a
+	 *            permutation of 1 to 9 at indices 1 to 9.
+	 */
+	GridTransform(int[] squares, int[] labels) {
+		this.squares = squares;
+		this.labels = labels;
+		values = new int[labels.length];
+		for (int value = 1; value < labels.length; value++) {
+			values[labels[value]] = value;
+		}
+	}
+
+	/**
+	 * Applies the transform.
+	 *
+	 * @param original
+	 *            The values to transform.
+	 * @param result
+	 *            The array to write the transformed values to, which must not
+	 *            be the same array.
+	 */
+	public void apply(int[] original, int[] result) {
+		for (int square = 0; square < squares.length; square++) {
+			result[square] = labels[original[squares[square]]];
+		}
+	}
+
+	/**
+	 * Undoes the transform.
+	 *
+	 * @param transformed
+	 *            The values to transform back, such as the solution of the
+	 *            canonical form.
+	 * @param result
+	 *            The array to write the original values to, which must not be
+	 *            the same array.
+	 */
+	public void revert(int[] transformed, int[] result) {
+		for (int square = 0; square < squares.length; square++) {
+			result[squares[square]] = values[transformed[square]];
+		}
+	}
+}
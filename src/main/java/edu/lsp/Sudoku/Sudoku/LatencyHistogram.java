@@ -0,0 +1,110 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * Records durations in a fixed number of logarithmic buckets, so that
+ * percentiles can be reported for any number of samples in constant memory.
+ * Every power of two is split into {@link #SUB_BUCKETS} linear buckets, which
+ * keeps the relative error of a reported value below 1 / SUB_BUCKETS.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+	/**
+	 * The number of bits used for the linear buckets within a power of two.
+	 */
+	private static final int SUB_BUCKET_BITS = 4;
+
+	/**
+	 * The number of linear buckets within a power of two.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Enough buckets for every non-negative long.
+	 */
+	private static final int BUCKETS = SUB_BUCKETS * (Long.SIZE - SUB_BUCKET_BITS);
+
+	private final long[] counts = new long[BUCKETS];
+	private long total;
+	private long maximum;
+
+	/**
+	 * Records one duration.
+	 *
+	 * @param nanos
+	 *            The duration in nanoseconds.
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts[bucket(value)]++;
+		total++;
+		maximum = Math.max(maximum, value);
+	}
+
+	/**
+	 * Returns the number of recorded durations.
+	 *
+	 * @return The number of recorded durations.
+	 */
+	public long getCount() {
+		return total;
+	}
+
+	/**
+	 * Returns the largest recorded duration, exactly.
+	 *
+	 * @return The largest recorded duration in nanoseconds.
+	 */
+	public long getMaximum() {
+		return maximum;
+	}
+
+	/**
+	 * Returns the duration below which the given percentage of the recorded
+	 * durations lie. The result is the upper bound of the matching bucket.
+	 *
+	 * @param percentile
+	 *            The percentage, between 0 and 100.
+	 * @return The duration in nanoseconds, or 0 if nothing is recorded.
+	 */
+	public long getPercentile(double percentile) {
+		if (total == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank)
+				return Math.min(maximum, upperBound(i));
+		}
+		return maximum;
+	}
+
+	/**
+	 * Returns the bucket of the given non-negative value.
+	 */
+	private static int bucket(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+		return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * Returns the largest value that falls in the given bucket.
+	 */
+	private static long upperBound(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int shift = bucket / SUB_BUCKETS - 1;
+		long sub = bucket % SUB_BUCKETS;
+		long lower = (SUB_BUCKETS + sub) << shift;
+		return lower + (1L << shift) - 1;
+	}
+}
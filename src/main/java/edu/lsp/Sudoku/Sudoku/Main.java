@@ -1,8 +1,10 @@
 package edu.lsp.Sudoku.Sudoku;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * The main class that handles search and constraint propagation methods. It
@@ -33,13 +35,45 @@ public class Main {
 
 
     /**
-     * The entry point for the program. Currently it does not accept any input.
-     * It won't be difficult to do that. I encourage everyone to tinker with
-     * the code.
+     * The entry point for the program. The first argument, if present,
+     * selects the mode:
+     * <ul>
+     * <li>the name of an {@link Engine}, which solves the puzzle below with
+     * that engine ({@link Engine#PROPAGATION} if there are no arguments);</li>
+     * <li><code>batch</code>, see {@link BatchSolver#main(String[])};</li>
+     * <li><code>generate</code>, see {@link #generate(String[])};</li>
+     * <li><code>rate</code>, see {@link Rater#main(String[])};</li>
+     * <li><code>dedup</code>, see {@link Deduplicator#main(String[])};</li>
+     * <li><code>serve</code>, see {@link SolveServer#main(String[])}.</li>
+     * </ul>
      *
-     * @param args The command-line arguments (which are ignored)
+     * @param args The mode, followed by the arguments of the mode.
+     * @throws IOException If the batch files cannot be read or written.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equalsIgnoreCase("batch")) {
+            BatchSolver.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("rate")) {
+            Rater.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("dedup")) {
+            Deduplicator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("serve")) {
+            SolveServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equalsIgnoreCase("generate")) {
+            generate(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        Engine engine = args.length > 0
+                ? Engine.valueOf(args[0].toUpperCase())
+                : Engine.PROPAGATION;
         // The following is supposed to be the world's "hardest" Sudoku puzzle.
         Board board = Parser.parse("" +
                 "+-----------------------+\n" +
@@ -59,7 +93,7 @@ public class Main {
         //Board board = Parser.parse(Generator.generateSolved());
         System.out.println(board);
         List<Board> solutions = new ArrayList<>();
-        search(board, solutions);
+        search(board, solutions, engine);
         if (solutions.isEmpty()) {
             System.out.println("No solution found. Input is invalid.");
         } else if (solutions.size() == 1) {
@@ -74,54 +108,128 @@ public class Main {
     }
 
     /**
-     * Carries on constraint propagation till no further values can be
-     * eliminated.
+     * Generates puzzles with exactly one solution and prints them, one per
+     * line.
      *
-     * @param board The starting point for propagation.
-     * @return The end result of propagation.
+     * @param args The number of puzzles (1 by default), the target number of
+     *             clues (0, i.e. minimal puzzles, by default) and the name of
+     *             the {@link Symmetry} (NONE by default), all optional.
      */
-    private static Board propagateTillPossible(Board board) {
-        while (true) {
-            Board newBoard = board.propagate();
-            if (newBoard == null || newBoard == board) return newBoard;
-            board = newBoard;
+    private static void generate(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        int clues = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        Symmetry symmetry = args.length > 2
+                ? Symmetry.valueOf(args[2].toUpperCase())
+                : Symmetry.NONE;
+        PuzzleGenerator generator = new PuzzleGenerator(Grid.STANDARD, clues, symmetry);
+        for (Board puzzle : generator.generate(count)) {
+            System.out.println(puzzle.toLine());
         }
     }
 
     /**
-     * Performs a DFS (Depth-First-Search) of the possible states. Eliminates
-     * as many state possibilities as possible using constraint propagation.
+     * Finds all the solutions of the given Board with the chosen engine and
+     * adds them to the list.
      *
-     * @param board The state to work with.
+     * @param board     The Board to solve.
+     * @param solutions The list to add the solutions to.
+     * @param engine    The engine to search with.
      */
-    private static void search(Board board, List<Board> solutions) {
-        // The board provided is faulty
-        if (board == null || board.isWrong())
-            return;
+    public static void search(Board board, List<Board> solutions,
+                              Engine engine) {
+        search(board, solutions, engine, Integer.MAX_VALUE);
+    }
 
-        // Solution obtained
-        if (board.isSolved()) {
-            solutions.add(board);
-            return;
+    /**
+     * Finds the solutions of the given Board with the chosen engine and adds
+     * them to the list. The search stops as soon as the list holds the given
+     * number of solutions.
+     *
+     * @param board     The Board to solve.
+     * @param solutions The list to add the solutions to.
+     * @param engine    The engine to search with.
+     * @param limit     The maximum number of solutions the list may hold.
+     */
+    public static void search(Board board, List<Board> solutions,
+                              Engine engine, int limit) {
+        switch (engine) {
+            case TRAIL:
+                new TrailSearch().search(board, solutions, limit);
+                break;
+            case DANCING_LINKS:
+                new DancingLinks().search(board, solutions, limit);
+                break;
+            case PARALLEL:
+                new ParallelSearch().search(board, solutions, limit);
+                break;
+            default:
+                new PropagationSearch().search(board, solutions, limit);
         }
+    }
 
-        // Proceeding with the square with minimum candidates helps to reduce
-        // the chance of failure. For example, if we proceed with 7 (say)
-        // possibilities, we may fail 6 out of 7 times. However, if we
-        // proceed with 2 (say), we may fail at most half of the time.
-        Map.Entry<String, String> pair = board.minimumCandidatePair();
+    /**
+     * Finds the solutions of the given Board with the chosen engine and
+     * collects the statistics of the search. The search stops as soon as the
+     * given number of solutions is found. The dancing links and the parallel
+     * engines only report the solutions, the time and whether the limit was
+     * reached.
+     *
+     * @param board  The Board to solve.
+     * @param engine The engine to search with.
+     * @param limit  The maximum number of solutions to find.
+     * @return The solutions and the statistics of the search.
+     */
+    public static SolveResult solve(Board board, Engine engine, int limit) {
+        return Solver.builder().engine(engine).limit(limit).build().solve(board);
+    }
 
-        // Try out every possibility and see how far (or deep into the search
-        // space) we can go. At least one branch is guaranteed to yield a
-        // solution.
-        for (char c : pair.getValue().toCharArray()) {
-            String value = String.valueOf(c);
+    /**
+     * Counts the solutions of the given Board with the chosen engine, without
+     * keeping the solved Boards. The search stops as soon as the given number
+     * of solutions is reached.
+     *
+     * @param board  The Board to solve.
+     * @param engine The engine to search with.
+     * @param limit  The number of solutions at which to stop counting.
+     * @return The number of solutions, at most <code>limit</code>.
+     */
+    public static long count(Board board, Engine engine, long limit) {
+        switch (engine) {
+            case TRAIL:
+                return new TrailSearch().count(board, limit);
+            case DANCING_LINKS:
+                return new DancingLinks().count(board, limit);
+            case PARALLEL:
+                return new ParallelSearch().count(board, limit);
+            default:
+                return new PropagationSearch().count(board, limit);
+        }
+    }
 
-            Board next = new Board(board, pair.getKey(), value);
-            next = propagateTillPossible(next);
-            search(next, solutions);
+    /**
+     * Returns <code>true</code> if the given Board has exactly one solution.
+     * The search stops as soon as a second solution is found.
+     *
+     * @param board The Board to check.
+     * @return <code>true</code> if the given Board has exactly one solution.
+     */
+    public static boolean isUnique(Board board) {
+        List<Board> solutions = new ArrayList<>(2);
+        new TrailSearch().search(board, solutions, 2);
+        return solutions.size() == 1;
+    }
 
-        }
+    /**
+     * Returns the solutions of the given Board as a lazy stream. Each
+     * solution is only searched for when the stream asks for it, so
+     * <code>limit</code>, <code>findFirst</code> and the like stop the search
+     * early. See {@link SolutionIterator}.
+     *
+     * @param board The Board to solve.
+     * @return The solutions of the Board.
+     */
+    public static Stream<Board> solutions(Board board) {
+        return SolutionIterator.stream(board);
     }
 
 }
@@ -0,0 +1,248 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Performs the DFS on several threads with a {@link ForkJoinPool}. The
+ * branches of the square with the minimum number of candidates are submitted
+ * as separate tasks, down to a fixed depth. Below that depth, or when only a
+ * few squares remain unmarked, every task runs a sequential
+ * {@link TrailSearch}.
+ * <p>
+ * The solutions are merged in the same order as the sequential search
+ * produces them. When the number of solutions is limited, the search stops
+ * once the limit is reached by all tasks together, so the solutions returned
+ * may be different ones than the sequential search would find first. An
+ * instance is thread-safe.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class ParallelSearch implements AutoCloseable {
+
+	/**
+	 * The default depth up to which the branches are split into tasks.
+	 */
+	public static final int DEFAULT_SPLIT_DEPTH = 6;
+
+	/**
+	 * The default number of unmarked squares below which a branch is not
+	 * worth splitting any more.
+	 */
+	public static final int DEFAULT_MINIMUM_OPEN_SQUARES = 20;
+
+	/**
+	 * The sequential search of each worker thread.
+	 */
+	private static final ThreadLocal<TrailSearch> SEARCHES = ThreadLocal.withInitial(TrailSearch::new);
+
+	/**
+	 * The state used by each worker thread for splitting. It is never in use
+	 * while the thread joins another task, so sharing it between the tasks
+	 * run by one thread is safe.
+	 */
+	private static final ThreadLocal<SearchState> STATES = ThreadLocal.withInitial(SearchState::new);
+
+	private final ForkJoinPool pool;
+	private final boolean ownsPool;
+	private final int splitDepth;
+	private final int minimumOpenSquares;
+
+	/**
+	 * Creates a parallel search on the common pool, with the default cutoffs.
+	 */
+	public ParallelSearch() {
+		this(ForkJoinPool.commonPool(), false, DEFAULT_SPLIT_DEPTH, DEFAULT_MINIMUM_OPEN_SQUARES);
+	}
+
+	/**
+	 * Creates a parallel search on a new pool with the given parallelism. The
+	 * pool is shut down by {@link #close()}.
+	 *
+	 * @param parallelism
+	 *            The number of worker threads.
+	 * @param splitDepth
+	 *            The depth up to which the branches are split into tasks.
+	 * @param minimumOpenSquares
+	 *            The number of unmarked squares below which a branch is
+	 *            searched sequentially.
+	 */
+	public ParallelSearch(int parallelism, int splitDepth, int minimumOpenSquares) {
+		this(new ForkJoinPool(parallelism), true, splitDepth, minimumOpenSquares);
+	}
+
+	private ParallelSearch(ForkJoinPool pool, boolean ownsPool, int splitDepth, int minimumOpenSquares) {
+		if (splitDepth < 0 || minimumOpenSquares < 0)
+			throw new IllegalArgumentException("The cutoffs cannot be negative.");
+		this.pool = pool;
+		this.ownsPool = ownsPool;
+		this.splitDepth = splitDepth;
+		this.minimumOpenSquares = minimumOpenSquares;
+	}
+
+	/**
+	 * Returns the number of worker threads.
+	 *
+	 * @return The number of worker threads.
+	 */
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Finds all the solutions of the given Board and adds them to the list.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param solutions
+	 *            The list to add the solutions to.
+	 */
+	public void search(Board board, List<Board> solutions) {
+		search(board, solutions, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Finds the solutions of the given Board and adds them to the list,
+	 * stopping as soon as the list holds the given number of solutions.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param solutions
+	 *            The list to add the solutions to.
+	 * @param limit
+	 *            The maximum number of solutions the list may hold.
+	 */
+	public void search(Board board, List<Board> solutions, int limit) {
+		int remaining = limit - solutions.size();
+		if (board == null || remaining <= 0)
+			return;
+		SearchTask task = new SearchTask(board, 0, remaining, new AtomicLong(), new ArrayList<>());
+		pool.invoke(task);
+		List<Board> found = task.solutions;
+		solutions.addAll(found.size() > remaining ? found.subList(0, remaining) : found);
+	}
+
+	/**
+	 * Counts the solutions of the given Board without creating them, stopping
+	 * as soon as the given number of solutions is reached. Every task keeps
+	 * its own count, and the counts are summed up when the tasks are joined.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param limit
+	 *            The number of solutions at which to stop counting.
+	 * @return The number of solutions, at most <code>limit</code>.
+	 */
+	public long count(Board board, long limit) {
+		if (board == null || limit <= 0)
+			return 0;
+		return Math.min(limit, pool.invoke(new SearchTask(board, 0, limit, new AtomicLong(), null)));
+	}
+
+	/**
+	 * Shuts down the pool, if it was created by this instance.
+	 */
+	@Override
+	public void close() {
+		if (ownsPool)
+			pool.shutdown();
+	}
+
+	/**
+	 * Searches the subtree of one Board, and returns the number of solutions
+	 * in it.
+	 */
+	private final class SearchTask extends RecursiveTask<Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Board board;
+		private final int depth;
+		private final long limit;
+
+		/**
+		 * The number of solutions found by all the tasks so far.
+		 */
+		private final AtomicLong found;
+
+		/**
+		 * The solutions of this subtree, or <code>null</code> when they are
+		 * only counted.
+		 */
+		final List<Board> solutions;
+
+		SearchTask(Board board, int depth, long limit, AtomicLong found, List<Board> solutions) {
+			this.board = board;
+			this.depth = depth;
+			this.limit = limit;
+			this.found = found;
+			this.solutions = solutions;
+		}
+
+		@Override
+		protected Long compute() {
+			if (found.get() >= limit)
+				return 0L;
+			if (depth >= splitDepth) {
+				return searchSequentially();
+			}
+
+			SearchState state = STATES.get();
+			if (state.grid() != board.getGrid()) {
+				state = new SearchState(board.getGrid(), Collections.<Rule> emptySet(), TieBreak.FIRST);
+				STATES.set(state);
+			}
+			if (!state.load(board))
+				return 0L;
+			int square = state.minimumCandidateSquare();
+
+			// Solution obtained
+			if (square == -1) {
+				if (solutions != null)
+					solutions.add(state.toBoard());
+				found.incrementAndGet();
+				return 1L;
+			}
+			if (state.openSquares() < minimumOpenSquares) {
+				return searchSequentially();
+			}
+
+			// One task per candidate, joined in order
+			Board propagated = state.toBoard();
+			int candidates = state.candidates(square);
+			List<SearchTask> tasks = new ArrayList<>(Integer.bitCount(candidates));
+			for (int bits = candidates; bits != 0; bits &= bits - 1) {
+				tasks.add(new SearchTask(new Board(propagated, square, bits & -bits), depth + 1, limit, found,
+						solutions == null ? null : new ArrayList<>()));
+			}
+			invokeAll(tasks);
+			long count = 0;
+			for (SearchTask task : tasks) {
+				count += task.join();
+				if (solutions != null)
+					solutions.addAll(task.solutions);
+			}
+			return count;
+		}
+
+		/**
+		 * Searches the subtree on the current thread.
+		 */
+		private long searchSequentially() {
+			long count;
+			if (solutions == null) {
+				count = SEARCHES.get().count(board, limit);
+			} else {
+				SEARCHES.get().search(board, solutions, (int) Math.min(limit, Integer.MAX_VALUE));
+				count = solutions.size();
+			}
+			found.addAndGet(count);
+			return count;
+		}
+	}
+}
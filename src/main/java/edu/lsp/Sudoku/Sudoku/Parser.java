@@ -1,9 +1,6 @@
 package edu.lsp.Sudoku.Sudoku;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
-import static edu.lsp.Sudoku.Sudoku.Constants.*;
+import java.nio.ByteBuffer;
 
 /**
  * Handles the parsing of various formats and produces a Board.
@@ -13,13 +10,19 @@ import static edu.lsp.Sudoku.Sudoku.Constants.*;
  */
 public class Parser {
 
+	/**
+	 * Returned by the parse methods that fill an array of masks when the
+	 * input runs out before every square is filled.
+	 */
+	public static final int TOO_SHORT = -1;
+
 	/**
 	 * Parses a given String and tries to generate a Board with the required
 	 * state and mappings.
 	 * <p>
 	 * This parser will only accept numbers 1 through 9 (or Constants#SIZE) and
-	 * map them to their respective squares. '0' and '.' represent blank
-	 * squares. <b>All other characters are ignored.</b>
+	 * map them to their respective squares of a standard 9x9 Board. '0' and
+	 * '.' represent blank squares. <b>All other characters are ignored.</b>
 	 *
 	 * @param input
 	 *            The input String to parse.
@@ -28,37 +31,153 @@ public class Parser {
 	 *             If the input is invalid.
 	 */
 	public static Board parse(String input) throws IllegalArgumentException {
-		Map<String, String> state = new LinkedHashMap<>(NUMBER_OF_SQUARES);
-		int i = 0;
-		for (String square : SQUARES) {
-			try {
-				char c;
-				do {
-					c = input.charAt(i++);
-				} while (!(CANDIDATES.indexOf(c) > -1 || c == '0' || c == '.'));
-				state.put(square, CANDIDATES.indexOf(c) > -1 ? String.valueOf(c) : CANDIDATES);
-			} catch (StringIndexOutOfBoundsException ignore) {
-				throw new IllegalArgumentException("Input cannot be parsed.");
-			}
+		return parse(input, Grid.STANDARD);
+	}
+
+	/**
+	 * Parses a given String into a Board of the given grid, with the same
+	 * rules as {@link #parse(String)}. The values are the symbols of the grid,
+	 * e.g. 1 through 9 and then A through G for a 16x16 grid, in either case.
+	 *
+	 * @param input
+	 *            The input String to parse.
+	 * @param grid
+	 *            The geometry of the Board.
+	 * @return The corresponding Board.
+	 * @throws IllegalArgumentException
+	 *             If the input is invalid.
+	 */
+	public static Board parse(String input, Grid grid) throws IllegalArgumentException {
+		int[] masks = new int[grid.numberOfSquares];
+		if (parse(input, 0, input.length(), grid, masks) == TOO_SHORT)
+			throw new IllegalArgumentException("Input cannot be parsed.");
+		return new Board(masks);
+	}
+
+	/**
+	 * Parses the characters in the given range into an array of candidate
+	 * masks, with the same rules as {@link #parse(String)}. Nothing is
+	 * allocated, and malformed input is reported by the return value instead
+	 * of an exception. {@link Board#of(int[])} turns the masks into a Board.
+	 *
+	 * @param input
+	 *            The characters to parse.
+	 * @param offset
+	 *            The index of the first character.
+	 * @param length
+	 *            The number of characters that may be read.
+	 * @param masks
+	 *            The array of candidate masks to fill. Its length selects the
+	 *            grid.
+	 * @return The index just after the character of the last square, where
+	 *         the next puzzle may start, or {@link #TOO_SHORT}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the range is not within the input.
+	 */
+	public static int parse(CharSequence input, int offset, int length, int[] masks) {
+		checkRange(offset, length, input.length());
+		return parse(input, offset, offset + length, Grid.ofSquares(masks.length), masks);
+	}
+
+	/**
+	 * Parses the bytes in the given range into an array of candidate masks,
+	 * like {@link #parse(CharSequence, int, int, int[])}. The bytes are read
+	 * as ASCII.
+	 *
+	 * @param input
+	 *            The bytes to parse.
+	 * @param offset
+	 *            The index of the first byte.
+	 * @param length
+	 *            The number of bytes that may be read.
+	 * @param masks
+	 *            The array of candidate masks to fill. Its length selects the
+	 *            grid.
+	 * @return The index just after the byte of the last square, where the
+	 *         next puzzle may start, or {@link #TOO_SHORT}.
+	 * @throws IndexOutOfBoundsException
+	 *             If the range is not within the input.
+	 */
+	public static int parse(byte[] input, int offset, int length, int[] masks) {
+		checkRange(offset, length, input.length);
+		return parse(input, null, offset, offset + length, masks);
+	}
+
+	/**
+	 * The loop of the byte parsers. It reads the bytes at absolute indices,
+	 * from the array or, if there is none, from the buffer, so that
+	 * {@link PuzzleFileReader} parses the mapped bytes in place. The position
+	 * of the buffer is not changed and nothing is allocated.
+	 *
+	 * @param array
+	 *            The bytes to parse, or <code>null</code> to read the buffer.
+	 * @param buffer
+	 *            The bytes to parse if there is no array.
+	 * @param from
+	 *            The index of the first byte, inclusive.
+	 * @param to
+	 *            The index of the last byte, exclusive.
+	 * @param masks
+	 *            The array of candidate masks to fill. Its length selects the
+	 *            grid.
+	 * @return The index just after the byte of the last square, or
+	 *         {@link #TOO_SHORT}.
+	 */
+	static int parse(byte[] array, ByteBuffer buffer, int from, int to, int[] masks) {
+		int[] symbolMasks = Grid.ofSquares(masks.length).symbolMasks;
+		int i = from;
+		int square = 0;
+		while (square < masks.length) {
+			if (i >= to)
+				return TOO_SHORT;
+			byte b = array != null ? array[i] : buffer.get(i);
+			i++;
+			int mask = symbolMasks[b & 0xFF];
+			if (mask != 0)
+				masks[square++] = mask;
 		}
-		return new Board(state);
+		return i;
+	}
+
+	private static int parse(CharSequence input, int from, int to, Grid grid, int[] masks) {
+		int[] symbolMasks = grid.symbolMasks;
+		int i = from;
+		int square = 0;
+		while (square < masks.length) {
+			if (i >= to)
+				return TOO_SHORT;
+			char c = input.charAt(i++);
+			int mask = c < symbolMasks.length ? symbolMasks[c] : 0;
+			if (mask != 0)
+				masks[square++] = mask;
+		}
+		return i;
+	}
+
+	private static void checkRange(int offset, int length, int size) {
+		if (offset < 0 || length < 0 || offset > size - length)
+			throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length
+					+ ") out of bounds for length " + size);
 	}
 
 	/**
 	 * Parses the given trusted array. It is used internally to generate the
-	 * initial Board randomly.
+	 * initial Board randomly. The grid is the one with as many rows as the
+	 * array.
 	 *
 	 * @param trustedArray
 	 *            The trusted array to parse.
 	 * @return The corresponding Board.
 	 */
 	protected static Board parse(int[][] trustedArray) {
-		Map<String, String> state = new LinkedHashMap<>(NUMBER_OF_SQUARES);
+		Grid grid = Grid.ofSize(trustedArray.length);
+		int size = grid.size;
+		int[] state = new int[grid.numberOfSquares];
 		int i = 0, j = 0;
-		for (String square : SQUARES) {
-			char c = (char) ('0' + trustedArray[i][j++]);
-			state.put(square, CANDIDATES.indexOf(c) > -1 ? String.valueOf(c) : CANDIDATES);
-			if (j == SIZE) {
+		for (int square = 0; square < state.length; square++) {
+			int value = trustedArray[i][j++];
+			state[square] = value >= 1 && value <= size ? 1 << (value - 1) : grid.allCandidates;
+			if (j == size) {
 				j = 0;
 				i++;
 			}
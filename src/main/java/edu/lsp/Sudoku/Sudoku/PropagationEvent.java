@@ -0,0 +1,62 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event for a propagation that took longer than the
+ * threshold, 1 ms unless the recording sets another one. A propagation
+ * usually takes a few microseconds, so only the pathological ones are
+ * recorded. It covers every pass made till nothing changes, after one
+ * assignment of the search or after loading a Board. It is only recorded for
+ * the searches of a {@link Solver}.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+@Name(PropagationEvent.NAME)
+@Label("Slow Propagation")
+@Category("Sudoku")
+@Description("Constraint propagation that took longer than the threshold")
+@StackTrace(false)
+@Threshold("1 ms")
+final class PropagationEvent extends Event {
+
+	static final String NAME = "edu.lsp.Sudoku.SlowPropagation";
+
+	@Label("Passes")
+	long passes;
+
+	@Label("Eliminations")
+	@Description("The number of candidates removed")
+	long eliminations;
+
+	@Label("Consistent")
+	@Description("Whether no contradiction was found")
+	boolean consistent;
+
+	/**
+	 * Ends the event and commits it if the recording wants it.
+	 *
+	 * @param passes
+	 *            The number of propagation passes.
+	 * @param eliminations
+	 *            The number of candidates removed.
+	 * @param consistent
+	 *            <code>false</code> if a contradiction was found.
+	 */
+	void commit(long passes, long eliminations, boolean consistent) {
+		end();
+		if (!shouldCommit())
+			return;
+		this.passes = passes;
+		this.eliminations = eliminations;
+		this.consistent = consistent;
+		commit();
+	}
+}
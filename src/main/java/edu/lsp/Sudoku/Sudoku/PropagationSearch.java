@@ -0,0 +1,299 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Performs the original DFS of {@link Main}: constraint propagation till
+ * nothing changes, then a branch for every candidate of the square with the
+ * fewest candidates. Every branch is a new immutable Board, so the search
+ * keeps no state between calls.
+ * <p>
+ * An instance holds nothing but its rules and a reusable {@link UnitRules}
+ * per thread, so it can be shared between threads.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class PropagationSearch {
+
+	/**
+	 * The rules applied during propagation.
+	 */
+	private final Set<Rule> rules;
+
+	/**
+	 * The rules of each thread, for the grid it last searched.
+	 */
+	private final ThreadLocal<UnitRules> unitRules = new ThreadLocal<>();
+
+	/**
+	 * Creates a search that only removes the values of marked squares from
+	 * their peers during propagation.
+	 */
+	public PropagationSearch() {
+		this(Collections.<Rule> emptySet());
+	}
+
+	/**
+	 * Creates a search that also applies the given unit-based rules during
+	 * propagation.
+	 *
+	 * @param rules
+	 *            The rules to apply.
+	 */
+	public PropagationSearch(Set<Rule> rules) {
+		this.rules = rules.isEmpty() ? Collections.<Rule> emptySet() : EnumSet.copyOf(rules);
+	}
+
+	/**
+	 * Finds the solutions of the given Board and adds them to the list,
+	 * stopping as soon as the list holds the given number of solutions.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param solutions
+	 *            The list to add the solutions to.
+	 * @param limit
+	 *            The maximum number of solutions the list may hold.
+	 */
+	public void search(Board board, List<Board> solutions, int limit) {
+		if (board != null)
+			search(propagateTillPossible(board), solutions, solutions.size(), limit);
+	}
+
+	/**
+	 * Counts the solutions of the given Board without keeping them, stopping
+	 * as soon as the given number of solutions is reached.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param limit
+	 *            The number of solutions at which to stop counting.
+	 * @return The number of solutions, at most <code>limit</code>.
+	 */
+	public long count(Board board, long limit) {
+		return board == null ? 0 : search(propagateTillPossible(board), null, 0, limit);
+	}
+
+	/**
+	 * Finds the solutions of the given Board, stopping as soon as the given
+	 * number of solutions is found, and collects the statistics of the
+	 * search.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param limit
+	 *            The maximum number of solutions to find.
+	 * @return The solutions and the statistics of the search.
+	 */
+	public SolveResult solve(Board board, int limit) {
+		return solve(board, limit, null);
+	}
+
+	/**
+	 * Finds the solutions of the given Board like
+	 * {@link #solve(Board, int)}, and stops early once the budget is used up.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param limit
+	 *            The maximum number of solutions to find.
+	 * @param budget
+	 *            The limits of the search, or <code>null</code> for none.
+	 * @return The solutions found and the statistics of the search, with the
+	 *         reason it stopped early if it did.
+	 */
+	SolveResult solve(Board board, int limit, Budget budget) {
+		SolveResult result = new SolveResult();
+		long start = System.nanoTime();
+		if (board == null || limit <= 0)
+			return result;
+		SolveStatus status = budget == null ? null : budget.check(0);
+		if (status != null) {
+			result.status = status;
+			return result;
+		}
+		result.nodes = 1;
+		boolean stopped = searchCounting(propagateTillPossible(board, result), result, budget, 0, limit);
+		result.limitReached = stopped && result.status == SolveStatus.COMPLETED;
+		result.totalNanos = System.nanoTime() - start;
+		return result;
+	}
+
+	/**
+	 * Returns the rules of this thread for the given grid, or
+	 * <code>null</code> if there are none to apply.
+	 */
+	private UnitRules unitRules(Grid grid) {
+		if (rules.isEmpty())
+			return null;
+		UnitRules cached = unitRules.get();
+		if (cached == null || cached.grid != grid) {
+			cached = new UnitRules(grid, rules);
+			unitRules.set(cached);
+		}
+		return cached;
+	}
+
+	/**
+	 * Carries on constraint propagation till no further values can be
+	 * eliminated.
+	 *
+	 * @param board
+	 *            The starting point for propagation.
+	 * @return The end result of propagation.
+	 */
+	private Board propagateTillPossible(Board board) {
+		UnitRules unitRules = unitRules(board.getGrid());
+		while (true) {
+			Board newBoard = board.propagate(unitRules);
+			if (newBoard == null || newBoard == board)
+				return newBoard;
+			board = newBoard;
+		}
+	}
+
+	/**
+	 * Carries on constraint propagation like
+	 * {@link #propagateTillPossible(Board)}, and records the passes, the
+	 * eliminations and the time taken. A slow propagation is reported as a
+	 * {@link PropagationEvent}.
+	 *
+	 * @param board
+	 *            The starting point for propagation.
+	 * @param result
+	 *            The statistics to update.
+	 * @return The end result of propagation.
+	 */
+	private Board propagateTillPossible(Board board, SolveResult result) {
+		if (!FlightRecorderSupport.AVAILABLE)
+			return propagateCounting(board, result);
+		PropagationEvent event = new PropagationEvent();
+		event.begin();
+		long passes = result.propagations;
+		long eliminations = result.eliminations;
+		Board newBoard = propagateCounting(board, result);
+		event.commit(result.propagations - passes, result.eliminations - eliminations, newBoard != null);
+		return newBoard;
+	}
+
+	/**
+	 * Performs the propagation of
+	 * {@link #propagateTillPossible(Board, SolveResult)}.
+	 */
+	private Board propagateCounting(Board board, SolveResult result) {
+		long start = System.nanoTime();
+		int before = countCandidates(board);
+		UnitRules unitRules = unitRules(board.getGrid());
+		while (true) {
+			result.propagations++;
+			Board newBoard = board.propagate(unitRules);
+			if (newBoard == null || newBoard == board) {
+				if (newBoard != null)
+					result.eliminations += before - countCandidates(newBoard);
+				result.propagationNanos += System.nanoTime() - start;
+				return newBoard;
+			}
+			board = newBoard;
+		}
+	}
+
+	private static int countCandidates(Board board) {
+		int count = 0;
+		for (int square = 0; square < board.getGrid().numberOfSquares; square++) {
+			count += Integer.bitCount(board.candidates(square));
+		}
+		return count;
+	}
+
+	/**
+	 * Performs a DFS (Depth-First-Search) of the possible states. Eliminates
+	 * as many state possibilities as possible using constraint propagation.
+	 *
+	 * @param board
+	 *            The state to work with.
+	 * @param solutions
+	 *            The list to add the solutions to, or <code>null</code> if
+	 *            they are only counted.
+	 * @param found
+	 *            The number of solutions found so far.
+	 * @param limit
+	 *            The number of solutions at which to stop.
+	 * @return The number of solutions found so far, including this subtree.
+	 */
+	private long search(Board board, List<Board> solutions, long found, long limit) {
+		// The board provided is faulty. Propagation returns null on any
+		// repetition, so no separate check for one is needed.
+		if (found >= limit || board == null)
+			return found;
+
+		// Solution obtained
+		if (board.isSolved()) {
+			if (solutions != null)
+				solutions.add(board);
+			return found + 1;
+		}
+
+		// Proceeding with the square with minimum candidates helps to reduce
+		// the chance of failure. For example, if we proceed with 7 (say)
+		// possibilities, we may fail 6 out of 7 times. However, if we
+		// proceed with 2 (say), we may fail at most half of the time.
+		int square = board.minimumCandidateSquare();
+
+		// Try out every possibility and see how far (or deep into the search
+		// space) we can go. At least one branch is guaranteed to yield a
+		// solution.
+		for (int bits = board.candidates(square); bits != 0; bits &= bits - 1) {
+			Board next = propagateTillPossible(new Board(board, square, bits & -bits));
+			found = search(next, solutions, found, limit);
+			if (found >= limit)
+				break;
+		}
+		return found;
+	}
+
+	/**
+	 * Performs the same DFS as {@link #search(Board, List, long, long)}, and
+	 * records the nodes, the backtracks and the depth. Stops the whole search
+	 * once the budget is used up.
+	 *
+	 * @param board
+	 *            The state to work with.
+	 * @param result
+	 *            The statistics to update and the list of solutions.
+	 * @param budget
+	 *            The limits of the search, or <code>null</code> for none.
+	 * @param depth
+	 *            The number of assignments made on the way to this state.
+	 * @param limit
+	 *            The number of solutions at which to stop.
+	 * @return <code>true</code> if the limit has been reached or the budget
+	 *         used up.
+	 */
+	private boolean searchCounting(Board board, SolveResult result, Budget budget, int depth, long limit) {
+		if (board == null)
+			return false;
+		if (board.isSolved()) {
+			result.solutions.add(board);
+			return result.solutions.size() >= limit;
+		}
+		int square = board.minimumCandidateSquare();
+		for (int bits = board.candidates(square); bits != 0; bits &= bits - 1) {
+			SolveStatus status = budget == null ? null : budget.check(result.nodes);
+			if (status != null) {
+				result.status = status;
+				return true;
+			}
+			result.nodes++;
+			result.maxDepth = Math.max(result.maxDepth, depth + 1);
+			Board next = propagateTillPossible(new Board(board, square, bits & -bits), result);
+			if (searchCounting(next, result, budget, depth + 1, limit))
+				return true;
+			result.backtracks++;
+		}
+		return false;
+	}
+}
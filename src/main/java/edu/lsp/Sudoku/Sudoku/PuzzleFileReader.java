@@ -0,0 +1,183 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.Constants.NUMBER_OF_SQUARES;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads puzzles, one per line, from a memory-mapped file. The lines are
+ * parsed straight from the mapped bytes into candidate masks, so no String is
+ * created and no byte is copied per line. Empty lines, lines of white space
+ * only and lines starting with '#' are skipped, like in {@link BatchSolver}.
+ * <p>
+ * The file is mapped in windows of at most {@link #WINDOW_SIZE} bytes, so
+ * files of any size can be read. Instances are not thread-safe.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class PuzzleFileReader implements AutoCloseable {
+
+	/**
+	 * Returned by {@link #next(int[])} when a puzzle has been read.
+	 */
+	public static final int PUZZLE = 1;
+
+	/**
+	 * Returned by {@link #next(int[])} when a line cannot be parsed.
+	 */
+	public static final int INVALID = -1;
+
+	/**
+	 * Returned by {@link #next(int[])} at the end of the file.
+	 */
+	public static final int END_OF_FILE = 0;
+
+	/**
+	 * The largest number of bytes mapped at a time.
+	 */
+	static final int WINDOW_SIZE = 1 << 28;
+
+	private final FileChannel channel;
+	private final long fileSize;
+	private final int windowSize;
+
+	/**
+	 * The currently mapped part of the file.
+	 */
+	private MappedByteBuffer window;
+
+	/**
+	 * The position in the file of the first byte of the window.
+	 */
+	private long windowStart;
+
+	/**
+	 * The position within the window of the next line.
+	 */
+	private int position;
+
+	/**
+	 * Opens the given file for reading.
+	 *
+	 * @param path
+	 *            The file to read.
+	 * @throws IOException
+	 *             If the file cannot be opened or mapped.
+	 */
+	public PuzzleFileReader(Path path) throws IOException {
+		this(path, WINDOW_SIZE);
+	}
+
+	/**
+	 * Opens the given file for reading, with a custom window size.
+	 *
+	 * @param path
+	 *            The file to read.
+	 * @param windowSize
+	 *            The largest number of bytes mapped at a time. It must be
+	 *            longer than any line.
+	 * @throws IOException
+	 *             If the file cannot be opened or mapped.
+	 */
+	PuzzleFileReader(Path path, int windowSize) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.fileSize = channel.size();
+		this.windowSize = windowSize;
+		map(0);
+	}
+
+	/**
+	 * Reads the next puzzle into the given array of candidate masks.
+	 *
+	 * @param masks
+	 *            The array of NUMBER_OF_SQUARES masks to fill.
+	 * @return {@link #PUZZLE}, {@link #INVALID} or {@link #END_OF_FILE}.
+	 * @throws IOException
+	 *             If the next part of the file cannot be mapped.
+	 */
+	public int next(int[] masks) throws IOException {
+		while (true) {
+			int end = lineEnd();
+			if (end < 0)
+				return END_OF_FILE;
+			int start = position;
+			position = end < window.limit() ? end + 1 : end;
+			if (start == end || window.get(start) == '#' || isBlank(start, end))
+				continue;
+			return Parser.parse(null, window, start, end, masks) == Parser.TOO_SHORT ? INVALID : PUZZLE;
+		}
+	}
+
+	/**
+	 * Reads the next puzzle as a Board. Lines that cannot be parsed are
+	 * skipped.
+	 *
+	 * @return The next Board, or <code>null</code> at the end of the file.
+	 * @throws IOException
+	 *             If the next part of the file cannot be mapped.
+	 */
+	public Board nextBoard() throws IOException {
+		int[] masks = new int[NUMBER_OF_SQUARES];
+		int result;
+		while ((result = next(masks)) == INVALID) {
+			// skip
+		}
+		return result == PUZZLE ? new Board(masks) : null;
+	}
+
+	/**
+	 * Finds the end of the line at the current position, moving the window
+	 * forward if the line does not fit in it.
+	 *
+	 * @return The index of the '\n' (or of the end of the file) within the
+	 *         window, or -1 if there are no more lines.
+	 */
+	private int lineEnd() throws IOException {
+		while (true) {
+			int limit = window.limit();
+			if (position >= limit && windowStart + limit >= fileSize)
+				return -1;
+			for (int i = position; i < limit; i++) {
+				if (window.get(i) == '\n')
+					return i;
+			}
+			if (windowStart + limit >= fileSize)
+				return limit;
+			if (position == 0)
+				throw new IOException("Line longer than the window at byte " + windowStart);
+			map(windowStart + position);
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the line only has white space, such as the
+	 * '\r' of a Windows line ending.
+	 */
+	private boolean isBlank(int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (window.get(i) > ' ')
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Maps the window starting at the given position of the file.
+	 */
+	private void map(long start) throws IOException {
+		long size = Math.min(windowSize, fileSize - start);
+		window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+		windowStart = start;
+		position = 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
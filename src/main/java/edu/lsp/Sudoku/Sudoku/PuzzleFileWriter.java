@@ -0,0 +1,126 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes Boards, one per line, to a file. The lines are collected in a direct
+ * buffer, which is written to the channel in one call whenever it fills up,
+ * so no String or byte array is created per Board.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class PuzzleFileWriter implements AutoCloseable {
+
+	/**
+	 * The default size of the buffer, in bytes.
+	 */
+	static final int BUFFER_SIZE = 1 << 20;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+
+	/**
+	 * Creates (or truncates) the given file for writing.
+	 *
+	 * @param path
+	 *            The file to write.
+	 * @throws IOException
+	 *             If the file cannot be opened.
+	 */
+	public PuzzleFileWriter(Path path) throws IOException {
+		this(path, BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates (or truncates) the given file for writing, with a custom buffer
+	 * size.
+	 *
+	 * @param path
+	 *            The file to write.
+	 * @param bufferSize
+	 *            The size of the buffer, in bytes. It must be longer than any
+	 *            line.
+	 * @throws IOException
+	 *             If the file cannot be opened.
+	 */
+	PuzzleFileWriter(Path path, int bufferSize) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+	}
+
+	/**
+	 * Writes the Board as a line of one character per square, like
+	 * {@link Board#toLine()}.
+	 *
+	 * @param board
+	 *            The Board to write.
+	 * @throws IOException
+	 *             If the buffer cannot be written out.
+	 */
+	public void write(Board board) throws IOException {
+		Grid grid = board.getGrid();
+		ensureSpace(grid.numberOfSquares + 1);
+		for (int square = 0; square < grid.numberOfSquares; square++) {
+			buffer.put((byte) grid.symbol(board.candidates(square)));
+		}
+		buffer.put((byte) '\n');
+	}
+
+	/**
+	 * Writes the given ASCII text as a line.
+	 *
+	 * @param line
+	 *            The text to write.
+	 * @throws IOException
+	 *             If the buffer cannot be written out.
+	 */
+	public void write(String line) throws IOException {
+		ensureSpace(line.length() + 1);
+		for (int i = 0; i < line.length(); i++) {
+			buffer.put((byte) line.charAt(i));
+		}
+		buffer.put((byte) '\n');
+	}
+
+	/**
+	 * Writes out the buffer if fewer than the given number of bytes are free.
+	 */
+	private void ensureSpace(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+			if (buffer.remaining() < bytes)
+				throw new IOException("Line longer than the buffer.");
+		}
+	}
+
+	/**
+	 * Writes out everything buffered so far.
+	 *
+	 * @throws IOException
+	 *             If the buffer cannot be written out.
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+}
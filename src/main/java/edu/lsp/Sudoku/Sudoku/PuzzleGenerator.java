@@ -0,0 +1,179 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates puzzles with exactly one solution. A solved grid from
+ * {@link Generator#generateSolved(int[], SplittableRandom)} is emptied square
+ * by square, in a random order, and every removal that would allow a second
+ * solution is undone. Since the puzzle had one solution before the removal,
+ * it keeps one if no solution has another value in the emptied square, which
+ * a {@link TrailSearch} checks by stopping at the first such solution.
+ * <p>
+ * The removal stops once the target number of clues is reached. Otherwise the
+ * puzzle ends up minimal: putting back any clue would be redundant, and
+ * removing any would make it ambiguous. With a {@link Symmetry}, the paired
+ * squares are removed together, so the target may be missed by one.
+ * <p>
+ * An instance is thread-safe; {@link #generate(int)} uses every core. The
+ * same seed always gives the same puzzles, whichever thread generates them.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class PuzzleGenerator {
+
+	/**
+	 * The search of each thread. Hidden singles make the checks on puzzles
+	 * with few clues much cheaper.
+	 */
+	private static final ThreadLocal<TrailSearch> SEARCHES = ThreadLocal
+			.withInitial(() -> new TrailSearch(EnumSet.of(Rule.HIDDEN_SINGLE)));
+
+	private final Grid grid;
+	private final int targetClues;
+	private final Symmetry symmetry;
+
+	/**
+	 * Creates a generator of minimal standard puzzles without symmetry.
+	 */
+	public PuzzleGenerator() {
+		this(Grid.STANDARD, 0, Symmetry.NONE);
+	}
+
+	/**
+	 * Creates a generator with the given settings.
+	 *
+	 * @param grid
+	 *            The geometry of the puzzles.
+	 * @param targetClues
+	 *            The number of clues at which to stop removing. 0 removes as
+	 *            many as possible.
+	 * @param symmetry
+	 *            The pattern the clues follow.
+	 */
+	public PuzzleGenerator(Grid grid, int targetClues, Symmetry symmetry) {
+		this.grid = grid;
+		this.targetClues = targetClues;
+		this.symmetry = symmetry;
+	}
+
+	/**
+	 * Generates a puzzle with exactly one solution.
+	 *
+	 * @param random
+	 *            The source of the solved grid and of the order of removal.
+	 * @return A puzzle with exactly one solution.
+	 */
+	public Board generate(SplittableRandom random) {
+		int[] masks = new int[grid.numberOfSquares];
+		Generator.generateSolved(masks, random);
+		for (int square = 0; square < masks.length; square++) {
+			masks[square] = 1 << (masks[square] - 1);
+		}
+
+		// A random order of removal
+		int[] order = new int[masks.length];
+		for (int i = 0; i < order.length; i++) {
+			int j = random.nextInt(i + 1);
+			order[i] = order[j];
+			order[j] = i;
+		}
+
+		TrailSearch search = SEARCHES.get();
+		int clues = masks.length;
+		for (int square : order) {
+			if (clues <= targetClues)
+				break;
+			int partner = symmetry.partner(grid, square);
+			int value = masks[square];
+			int partnerValue = masks[partner];
+			// Already removed along with its partner
+			if (value == grid.allCandidates)
+				continue;
+			masks[partner] = grid.allCandidates;
+			masks[square] = grid.allCandidates & ~value;
+			boolean unique = search.count(new Board(masks.clone()), 1) == 0;
+			if (unique && partner != square) {
+				// The solutions with the same value in the square
+				masks[square] = value;
+				masks[partner] = grid.allCandidates & ~partnerValue;
+				unique = search.count(new Board(masks.clone()), 1) == 0;
+			}
+			if (unique) {
+				masks[square] = grid.allCandidates;
+				masks[partner] = grid.allCandidates;
+				clues -= partner == square ? 1 : 2;
+			} else {
+				masks[square] = value;
+				masks[partner] = partnerValue;
+			}
+		}
+		return new Board(masks);
+	}
+
+	/**
+	 * Generates the given number of puzzles on all the cores of the common
+	 * pool.
+	 *
+	 * @param count
+	 *            The number of puzzles to generate.
+	 * @return The puzzles, each with exactly one solution.
+	 */
+	public List<Board> generate(int count) {
+		return generate(count, new SplittableRandom());
+	}
+
+	/**
+	 * Generates the given number of puzzles on all the cores of the common
+	 * pool. Each puzzle gets its own generator split from the given one, so
+	 * the result only depends on its seed. The batch is reported as a
+	 * {@link GeneratorBatchEvent}.
+	 *
+	 * @param count
+	 *            The number of puzzles to generate.
+	 * @param random
+	 *            The source of randomness.
+	 * @return The puzzles, each with exactly one solution.
+	 */
+	public List<Board> generate(int count, SplittableRandom random) {
+		if (!FlightRecorderSupport.AVAILABLE)
+			return generateBatch(count, random);
+		GeneratorBatchEvent event = new GeneratorBatchEvent();
+		event.begin();
+		List<Board> puzzles = generateBatch(count, random);
+		event.end();
+		if (event.shouldCommit()) {
+			event.puzzles = count;
+			event.size = grid.size;
+			event.targetClues = targetClues;
+			event.symmetry = symmetry.name();
+			for (Board puzzle : puzzles) {
+				for (int square = 0; square < grid.numberOfSquares; square++) {
+					if (puzzle.candidates(square) != grid.allCandidates)
+						event.clues++;
+				}
+			}
+			event.commit();
+		}
+		return puzzles;
+	}
+
+	/**
+	 * Performs the generation of {@link #generate(int, SplittableRandom)}.
+	 */
+	private List<Board> generateBatch(int count, SplittableRandom random) {
+		SplittableRandom[] randoms = new SplittableRandom[count];
+		for (int i = 0; i < count; i++) {
+			randoms[i] = random.split();
+		}
+		return IntStream.range(0, count)
+				.parallel()
+				.mapToObj(i -> generate(randoms[i]))
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,848 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Rates puzzles by solving them the way a person would. At every step the
+ * easiest {@link Technique} that makes progress is used once over the whole
+ * grid, until the puzzle is solved or none of them applies, in which case the
+ * puzzle needs {@link Technique#TRIAL}. The result is a {@link Rating}.
+ * <p>
+ * The candidates are bit masks as in {@link Board}, and the scratch arrays
+ * are allocated once per grid, so rating a typical minimal puzzle takes about
+ * 120 microseconds on one core. The time spent in every technique, and the
+ * number of times it was tried and used, are kept across puzzles so that slow
+ * techniques can be found.
+ * <p>
+ * An instance is not thread-safe, but {@link #rate(List)} rates a list of
+ * puzzles on all the cores. Puzzles without a solution are rated
+ * {@link Technique#TRIAL} as soon as a contradiction shows up; puzzles with
+ * several solutions are rated as far as the techniques get.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class Rater {
+
+	/**
+	 * The techniques in the order they are tried. The last one,
+	 * {@link Technique#TRIAL}, is never tried.
+	 */
+	private static final Technique[] LADDER = Technique.values();
+
+	/**
+	 * The number of puzzles rated at once by {@link #main(String[])}.
+	 */
+	private static final int CHUNK_SIZE = 1 << 14;
+
+	/**
+	 * The rater of each thread used by {@link #rate(List)}, which keeps its
+	 * scratch arrays across calls.
+	 */
+	private static final ThreadLocal<Rater> WORKERS = ThreadLocal.withInitial(Rater::new);
+
+	/**
+	 * The time spent in every technique, in nanoseconds.
+	 */
+	private final long[] times = new long[LADDER.length];
+
+	/**
+	 * The number of times every technique was tried.
+	 */
+	private final long[] attempts = new long[LADDER.length];
+
+	/**
+	 * The number of times every technique made progress.
+	 */
+	private final long[] uses = new long[LADDER.length];
+
+	/**
+	 * The number of puzzles rated.
+	 */
+	private long puzzles;
+
+	private Grid grid;
+	private int[] masks;
+	private boolean[] placed;
+	private int open;
+	private boolean contradiction;
+
+	/**
+	 * The subset rules, indexed by the ordinal of their technique.
+	 */
+	private final UnitRules[] subsets = new UnitRules[LADDER.length];
+
+	/**
+	 * The rows, then the columns, then the boxes of every value in the
+	 * current unit, one bit each.
+	 */
+	private int[] spans;
+
+	/**
+	 * The columns of every value in every row, then the rows of every value
+	 * in every column, one bit each.
+	 */
+	private int[] positions;
+
+	/**
+	 * The ends of the links of the current value, for coloring.
+	 */
+	private int[] linkStarts;
+	private int[] linkEnds;
+
+	/**
+	 * The color of every square. Colors 2c and 2c + 1 are the two sides of
+	 * the cth group of links, and 0 is no color.
+	 */
+	private int[] colors;
+
+	/**
+	 * The stamp of the last square that saw every color.
+	 */
+	private int[] seen;
+
+	/**
+	 * The states of a chain, as square * size + value index, with the stamp
+	 * of the last chain that reached each of them.
+	 */
+	private int[] queue;
+	private int[] visited;
+	private int stamp;
+
+	/**
+	 * Rates the given puzzle.
+	 *
+	 * @param board
+	 *            The puzzle to rate.
+	 * @return The rating of the puzzle.
+	 */
+	public Rating rate(Board board) {
+		load(board);
+		Technique hardest = Technique.HIDDEN_SINGLE;
+		int score = 0;
+		int steps = 0;
+		while (open > 0) {
+			Technique used = contradiction ? Technique.TRIAL : step();
+			uses[used.ordinal()]++;
+			steps++;
+			score += used.getWeight();
+			if (used.compareTo(hardest) > 0)
+				hardest = used;
+			if (used == Technique.TRIAL)
+				break;
+		}
+		puzzles++;
+		return new Rating(hardest, score, steps);
+	}
+
+	/**
+	 * Rates the given puzzles on all the cores of the common pool. Every
+	 * puzzle is rated by the rater of its thread, whose counts and times are
+	 * then moved to this instance.
+	 *
+	 * @param boards
+	 *            The puzzles to rate.
+	 * @return The ratings, in the order of the puzzles.
+	 */
+	public List<Rating> rate(List<Board> boards) {
+		return boards.parallelStream()
+				.map(board -> {
+					Rater worker = WORKERS.get();
+					Rating rating = worker.rate(board);
+					synchronized (this) {
+						add(worker);
+					}
+					worker.clear();
+					return rating;
+				})
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Adds the counts and the times of another instance to this one.
+	 */
+	private void add(Rater other) {
+		for (int i = 0; i < LADDER.length; i++) {
+			times[i] += other.times[i];
+			attempts[i] += other.attempts[i];
+			uses[i] += other.uses[i];
+		}
+		puzzles += other.puzzles;
+	}
+
+	/**
+	 * Sets the counts and the times back to 0.
+	 */
+	private void clear() {
+		Arrays.fill(times, 0);
+		Arrays.fill(attempts, 0);
+		Arrays.fill(uses, 0);
+		puzzles = 0;
+	}
+
+	/**
+	 * Returns the candidates left by the last rating.
+	 *
+	 * @return The candidates left by the last rating.
+	 */
+	Board getCandidates() {
+		return new Board(masks.clone());
+	}
+
+	/**
+	 * Returns the number of puzzles rated.
+	 *
+	 * @return The number of puzzles rated.
+	 */
+	public long getPuzzles() {
+		return puzzles;
+	}
+
+	/**
+	 * Returns the time spent in the given technique, whether it made
+	 * progress or not.
+	 *
+	 * @param technique
+	 *            The technique.
+	 * @return The time spent in the technique, in nanoseconds.
+	 */
+	public long getTime(Technique technique) {
+		return times[technique.ordinal()];
+	}
+
+	/**
+	 * Returns the number of times the given technique was tried.
+	 *
+	 * @param technique
+	 *            The technique.
+	 * @return The number of times the technique was tried.
+	 */
+	public long getAttempts(Technique technique) {
+		return attempts[technique.ordinal()];
+	}
+
+	/**
+	 * Returns the number of steps taken with the given technique.
+	 *
+	 * @param technique
+	 *            The technique.
+	 * @return The number of times the technique made progress.
+	 */
+	public long getUses(Technique technique) {
+		return uses[technique.ordinal()];
+	}
+
+	/**
+	 * Prints the number of puzzles and, for every technique, how often it
+	 * was tried and used and the time spent in it.
+	 *
+	 * @param out
+	 *            The stream to print to.
+	 */
+	public void report(PrintStream out) {
+		out.printf("puzzles    %d%n", puzzles);
+		out.printf("%-18s %12s %12s %10s %10s%n", "technique", "uses", "attempts", "time", "per try");
+		for (Technique technique : LADDER) {
+			int i = technique.ordinal();
+			out.printf("%-18s %12d %12d %7.0f ms %7.2f us%n", technique, uses[i], attempts[i], times[i] / 1e6,
+					attempts[i] > 0 ? times[i] / 1e3 / attempts[i] : 0.0);
+		}
+	}
+
+	/**
+	 * Rates the puzzles in a file, one per line, on all the cores, and
+	 * writes every puzzle followed by its hardest technique and its score.
+	 * Lines that cannot be parsed are written as {@link BatchSolver#INVALID}.
+	 * Empty lines, lines of white space only and lines starting with '#' are
+	 * skipped. A '-' (or a
+	 * missing argument) stands for the standard input or output. The report
+	 * is printed to the standard error.
+	 *
+	 * @param args
+	 *            The input file and the output file.
+	 * @throws IOException
+	 *             If a file cannot be read or written.
+	 */
+	public static void main(String[] args) throws IOException {
+		String input = args.length > 0 ? args[0] : "-";
+		String output = args.length > 1 ? args[1] : "-";
+		Rater rater = new Rater();
+		long start = System.nanoTime();
+		try (InputStream in = input.equals("-") ? System.in : new FileInputStream(input);
+				OutputStream out = output.equals("-") ? new BatchSolver.NonClosingStream(System.out)
+						: new FileOutputStream(output);
+				BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+				Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII))) {
+			List<String> lines = new ArrayList<>(CHUNK_SIZE);
+			String line;
+			do {
+				line = reader.readLine();
+				if (line != null && !BatchSolver.isSkipped(line))
+					lines.add(line);
+				if (lines.size() == CHUNK_SIZE || (line == null && !lines.isEmpty())) {
+					rate(rater, lines, writer);
+					lines.clear();
+				}
+			} while (line != null);
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		rater.report(System.err);
+		System.err.printf("time       %.3f s, %.0f puzzles/s%n", seconds,
+				seconds > 0 ? rater.getPuzzles() / seconds : 0.0);
+	}
+
+	/**
+	 * Rates a chunk of lines and writes the results.
+	 */
+	private static void rate(Rater rater, List<String> lines, Writer writer) throws IOException {
+		List<Board> boards = new ArrayList<>(lines.size());
+		for (String line : lines) {
+			try {
+				boards.add(Parser.parse(line));
+			} catch (IllegalArgumentException e) {
+				boards.add(null);
+			}
+		}
+		List<Board> valid = new ArrayList<>(boards);
+		valid.removeIf(board -> board == null);
+		List<Rating> ratings = rater.rate(valid);
+		int next = 0;
+		for (int i = 0; i < lines.size(); i++) {
+			writer.write(lines.get(i));
+			writer.write(' ');
+			writer.write(boards.get(i) == null ? BatchSolver.INVALID : ratings.get(next++).toString());
+			writer.write('\n');
+		}
+	}
+
+	/**
+	 * Tries the techniques in order and returns the first one that makes
+	 * progress, or {@link Technique#TRIAL} if none does or a contradiction
+	 * is found.
+	 */
+	private Technique step() {
+		for (Technique technique : LADDER) {
+			if (technique == Technique.TRIAL)
+				break;
+			int i = technique.ordinal();
+			long start = System.nanoTime();
+			boolean progress = apply(technique);
+			times[i] += System.nanoTime() - start;
+			attempts[i]++;
+			if (progress)
+				return contradiction ? Technique.TRIAL : technique;
+		}
+		return Technique.TRIAL;
+	}
+
+	/**
+	 * Applies the given technique to the whole grid.
+	 *
+	 * @return <code>true</code> if anything changed.
+	 */
+	private boolean apply(Technique technique) {
+		switch (technique) {
+			case HIDDEN_SINGLE:
+				return hiddenSingles();
+			case NAKED_SINGLE:
+				return nakedSingles();
+			case LOCKED_CANDIDATES:
+				return lockedCandidates();
+			case X_WING:
+				return fish(2);
+			case SWORDFISH:
+				return fish(3);
+			case SIMPLE_COLORING:
+				return coloring();
+			case XY_CHAIN:
+				return xyChains();
+			default:
+				int changes = subsets[technique.ordinal()].apply(masks);
+				if (changes < 0)
+					contradiction = true;
+				return changes != 0;
+		}
+	}
+
+	/**
+	 * Loads the given puzzle, allocating the scratch arrays if its grid is
+	 * not the current one, and places the given values.
+	 */
+	private void load(Board board) {
+		Grid next = board.getGrid();
+		if (next != grid)
+			allocate(next);
+		board.copyCandidates(masks);
+		Arrays.fill(placed, false);
+		open = masks.length;
+		contradiction = false;
+		for (int square = 0; square < masks.length; square++) {
+			int value = board.candidates(square);
+			if (value == 0 || (value & (value - 1)) != 0)
+				continue;
+			// A given that an earlier given has taken away
+			if ((masks[square] & value) == 0)
+				contradiction = true;
+			else
+				place(square, value);
+		}
+		for (int mask : masks) {
+			if (mask == 0)
+				contradiction = true;
+		}
+	}
+
+	/**
+	 * Allocates the scratch arrays for the given grid.
+	 */
+	private void allocate(Grid grid) {
+		this.grid = grid;
+		int squares = grid.numberOfSquares;
+		int units = grid.unitIndices.length;
+		masks = new int[squares];
+		placed = new boolean[squares];
+		for (Technique technique : LADDER) {
+			switch (technique) {
+				case NAKED_PAIR:
+				case HIDDEN_PAIR:
+				case NAKED_TRIPLE:
+				case HIDDEN_TRIPLE:
+					subsets[technique.ordinal()] = new UnitRules(grid,
+							EnumSet.of(Rule.valueOf(technique.name())));
+					break;
+				default:
+					break;
+			}
+		}
+		spans = new int[3 * grid.size];
+		positions = new int[2 * grid.size * grid.size];
+		linkStarts = new int[units];
+		linkEnds = new int[units];
+		colors = new int[squares];
+		seen = new int[2 * units + 2];
+		queue = new int[squares * grid.size];
+		visited = new int[squares * grid.size];
+		stamp = 0;
+	}
+
+	/**
+	 * Places the value in the square and removes it from the peers.
+	 */
+	private void place(int square, int value) {
+		masks[square] = value;
+		placed[square] = true;
+		open--;
+		for (int peer : grid.peerIndices[square]) {
+			if ((masks[peer] & value) != 0)
+				eliminate(peer, value);
+		}
+	}
+
+	/**
+	 * Removes the value from the square.
+	 */
+	private void eliminate(int square, int value) {
+		int mask = masks[square] & ~value;
+		masks[square] = mask;
+		if (mask == 0)
+			contradiction = true;
+	}
+
+	/**
+	 * Returns <code>true</code> if the square is not placed and the value is
+	 * still possible in it.
+	 */
+	private boolean isOpen(int square, int value) {
+		return !placed[square] && (masks[square] & value) != 0;
+	}
+
+	private boolean isPeer(int a, int b) {
+		int[] unitsA = grid.squareUnits[a];
+		int[] unitsB = grid.squareUnits[b];
+		return a != b && (unitsA[0] == unitsB[0] || unitsA[1] == unitsB[1] || unitsA[2] == unitsB[2]);
+	}
+
+	private boolean hiddenSingles() {
+		boolean progress = false;
+		for (int[] unit : grid.unitIndices) {
+			int once = 0;
+			int twice = 0;
+			int done = 0;
+			for (int square : unit) {
+				int mask = masks[square];
+				if (placed[square]) {
+					done |= mask;
+				} else {
+					twice |= once & mask;
+					once |= mask;
+				}
+			}
+			if ((once | done) != grid.allCandidates) {
+				contradiction = true;
+				return true;
+			}
+			for (int bits = once & ~twice & ~done; bits != 0; bits &= bits - 1) {
+				int value = bits & -bits;
+				int found = -1;
+				// The square may have taken another hidden single already
+				for (int square : unit) {
+					if (isOpen(square, value)) {
+						found = square;
+						break;
+					}
+				}
+				if (found == -1) {
+					contradiction = true;
+					return true;
+				}
+				place(found, value);
+				progress = true;
+			}
+		}
+		return progress;
+	}
+
+	private boolean nakedSingles() {
+		boolean progress = false;
+		for (int square = 0; square < masks.length; square++) {
+			int mask = masks[square];
+			if (!placed[square] && (mask & (mask - 1)) == 0) {
+				if (mask == 0) {
+					contradiction = true;
+					return true;
+				}
+				place(square, mask);
+				progress = true;
+			}
+		}
+		return progress;
+	}
+
+	private boolean lockedCandidates() {
+		int size = grid.size;
+		int[][] units = grid.unitIndices;
+		int[][] squareUnits = grid.squareUnits;
+		boolean progress = false;
+		for (int u = 0; u < units.length; u++) {
+			// The rows, the columns and the boxes of every value in the unit.
+			// The changes are all outside the unit, so they stay valid.
+			Arrays.fill(spans, 0);
+			for (int square : units[u]) {
+				if (placed[square])
+					continue;
+				int[] squareUnit = squareUnits[square];
+				int row = 1 << squareUnit[0];
+				int column = 1 << (squareUnit[1] - size);
+				int box = 1 << (squareUnit[2] - 2 * size);
+				for (int bits = masks[square]; bits != 0; bits &= bits - 1) {
+					int value = Integer.numberOfTrailingZeros(bits);
+					spans[value] |= row;
+					spans[size + value] |= column;
+					spans[2 * size + value] |= box;
+				}
+			}
+			for (int value = 0; value < size; value++) {
+				int rows = spans[value];
+				int columns = spans[size + value];
+				int boxes = spans[2 * size + value];
+				if (rows == 0)
+					continue;
+				if (u >= 2 * size) {
+					// Pointing: the box decides the row or the column
+					if ((rows & (rows - 1)) == 0)
+						progress |= removeOutside(units[Integer.numberOfTrailingZeros(rows)], 1 << value, 2, u);
+					if ((columns & (columns - 1)) == 0)
+						progress |= removeOutside(units[size + Integer.numberOfTrailingZeros(columns)], 1 << value,
+								2, u);
+				} else if ((boxes & (boxes - 1)) == 0) {
+					// Claiming: the row or the column decides the box
+					progress |= removeOutside(units[2 * size + Integer.numberOfTrailingZeros(boxes)], 1 << value,
+							u < size ? 0 : 1, u);
+				}
+			}
+		}
+		return progress;
+	}
+
+	/**
+	 * Removes the value from the squares of the unit whose unit of the given
+	 * kind (0 for rows, 1 for columns, 2 for boxes) is not the given one.
+	 */
+	private boolean removeOutside(int[] unit, int value, int kind, int keep) {
+		boolean progress = false;
+		for (int square : unit) {
+			if (isOpen(square, value) && grid.squareUnits[square][kind] != keep) {
+				eliminate(square, value);
+				progress = true;
+			}
+		}
+		return progress;
+	}
+
+	/**
+	 * Finds fish of the given size with rows, then columns, as the base
+	 * lines.
+	 */
+	private boolean fish(int lines) {
+		int size = grid.size;
+		Arrays.fill(positions, 0);
+		for (int square = 0; square < masks.length; square++) {
+			if (placed[square])
+				continue;
+			int row = square / size;
+			int column = square % size;
+			for (int bits = masks[square]; bits != 0; bits &= bits - 1) {
+				int value = Integer.numberOfTrailingZeros(bits);
+				positions[value * size + row] |= 1 << column;
+				positions[(size + value) * size + column] |= 1 << row;
+			}
+		}
+		boolean progress = false;
+		for (int base = 0; base < 2; base++) {
+			for (int value = 0; value < size; value++) {
+				progress |= fish(1 << value, base, lines, (base * size + value) * size, 0, 0, 0);
+			}
+		}
+		return progress;
+	}
+
+	/**
+	 * Chooses the remaining base lines of a fish, from the given one on. The
+	 * positions may be out of date after an earlier fish, but only by
+	 * candidates that are gone, so every fish found is still a fish.
+	 *
+	 * @param offset
+	 *            The index of the positions of the value in the first base
+	 *            line.
+	 * @param chosen
+	 *            The base lines chosen so far, one bit each.
+	 * @param covers
+	 *            The cover lines of the chosen base lines, one bit each.
+	 */
+	private boolean fish(int value, int base, int lines, int offset, int from, int chosen, int covers) {
+		if (Integer.bitCount(chosen) == lines)
+			return Integer.bitCount(covers) == lines && removeFish(value, base, chosen, covers);
+		boolean progress = false;
+		for (int i = from; i < grid.size; i++) {
+			int count = Integer.bitCount(positions[offset + i]);
+			int next = covers | positions[offset + i];
+			if (count < 2 || Integer.bitCount(next) > lines)
+				continue;
+			progress |= fish(value, base, lines, offset, i + 1, chosen | 1 << i, next);
+		}
+		return progress;
+	}
+
+	/**
+	 * Removes the value from the cover lines, except in the base lines.
+	 */
+	private boolean removeFish(int value, int base, int chosen, int covers) {
+		int size = grid.size;
+		int cover = 1 - base;
+		boolean progress = false;
+		for (int bits = covers; bits != 0; bits &= bits - 1) {
+			for (int square : grid.unitIndices[cover * size + Integer.numberOfTrailingZeros(bits)]) {
+				int line = grid.squareUnits[square][base] - base * size;
+				if (isOpen(square, value) && (chosen & 1 << line) == 0) {
+					eliminate(square, value);
+					progress = true;
+				}
+			}
+		}
+		return progress;
+	}
+
+	private boolean coloring() {
+		boolean progress = false;
+		for (int bits = grid.allCandidates; bits != 0; bits &= bits - 1) {
+			progress |= coloring(bits & -bits);
+		}
+		return progress;
+	}
+
+	/**
+	 * Colors the links of the given value and applies the color wrap and the
+	 * color trap.
+	 */
+	private boolean coloring(int value) {
+		int links = 0;
+		for (int[] unit : grid.unitIndices) {
+			int first = -1;
+			int second = -1;
+			int count = 0;
+			for (int square : unit) {
+				if (isOpen(square, value)) {
+					if (count == 0)
+						first = square;
+					else
+						second = square;
+					count++;
+				}
+			}
+			if (count == 2) {
+				linkStarts[links] = first;
+				linkEnds[links] = second;
+				links++;
+			}
+		}
+		if (links < 2)
+			return false;
+
+		Arrays.fill(colors, 0);
+		int groups = 1;
+		for (int l = 0; l < links; l++) {
+			if (colors[linkStarts[l]] != 0 || colors[linkEnds[l]] != 0)
+				continue;
+			colors[linkStarts[l]] = 2 * groups;
+			colors[linkEnds[l]] = 2 * groups + 1;
+			groups++;
+			// Spread the colors over the links until nothing changes
+			boolean changed = true;
+			while (changed) {
+				changed = false;
+				for (int k = 0; k < links; k++) {
+					int start = colors[linkStarts[k]];
+					int end = colors[linkEnds[k]];
+					if (start != 0 && end == 0) {
+						colors[linkEnds[k]] = start ^ 1;
+						changed = true;
+					} else if (start == 0 && end != 0) {
+						colors[linkStarts[k]] = end ^ 1;
+						changed = true;
+					}
+				}
+			}
+		}
+
+		// Color wrap: two squares of the same color in a unit
+		for (int square = 0; square < colors.length; square++) {
+			int color = colors[square];
+			if (color == 0)
+				continue;
+			for (int peer : grid.peerIndices[square]) {
+				if (colors[peer] == color) {
+					for (int other = 0; other < colors.length; other++) {
+						if (colors[other] == color)
+							eliminate(other, value);
+					}
+					return true;
+				}
+			}
+		}
+
+		// Color trap: an uncolored square that sees both colors of a group
+		boolean progress = false;
+		for (int square = 0; square < colors.length; square++) {
+			if (colors[square] != 0 || !isOpen(square, value))
+				continue;
+			nextStamp();
+			for (int peer : grid.peerIndices[square]) {
+				int color = colors[peer];
+				if (color == 0)
+					continue;
+				if (seen[color ^ 1] == stamp) {
+					eliminate(square, value);
+					progress = true;
+					break;
+				}
+				seen[color] = stamp;
+			}
+		}
+		return progress;
+	}
+
+	/**
+	 * Moves on to the next stamp, clearing the stamped arrays when the
+	 * stamps wrap around.
+	 */
+	private void nextStamp() {
+		if (++stamp == 0) {
+			Arrays.fill(seen, 0);
+			Arrays.fill(visited, 0);
+			stamp = 1;
+		}
+	}
+
+	/**
+	 * Finds one XY-Chain that removes a candidate, from every square with
+	 * two candidates and for both of its values.
+	 */
+	private boolean xyChains() {
+		for (int start = 0; start < masks.length; start++) {
+			int mask = masks[start];
+			if (placed[start] || Integer.bitCount(mask) != 2)
+				continue;
+			for (int bits = mask; bits != 0; bits &= bits - 1) {
+				if (xyChain(start, bits & -bits))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Follows the chains from the given square, assuming that it does not
+	 * hold the given value, in breadth-first order. Every state is a square
+	 * that must then hold a value. When a square other than the start must
+	 * hold the value, either end holds it, so the squares that see both ends
+	 * cannot.
+	 */
+	private boolean xyChain(int start, int value) {
+		int size = grid.size;
+		int head = 0;
+		int tail = 0;
+		int first = start * size + Integer.numberOfTrailingZeros(masks[start] & ~value);
+		nextStamp();
+		queue[tail++] = first;
+		visited[first] = stamp;
+		while (head < tail) {
+			int state = queue[head++];
+			int square = state / size;
+			int held = 1 << (state % size);
+			for (int peer : grid.peerIndices[square]) {
+				int mask = masks[peer];
+				if (placed[peer] || Integer.bitCount(mask) != 2 || (mask & held) == 0)
+					continue;
+				int other = mask & ~held;
+				if (other == value && peer != start && removeSeenByBoth(start, peer, value))
+					return true;
+				int next = peer * size + Integer.numberOfTrailingZeros(other);
+				if (visited[next] != stamp) {
+					visited[next] = stamp;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the value from the squares that see both given squares.
+	 */
+	private boolean removeSeenByBoth(int a, int b, int value) {
+		boolean progress = false;
+		for (int square : grid.peerIndices[a]) {
+			if (square != b && isOpen(square, value) && isPeer(square, b)) {
+				eliminate(square, value);
+				progress = true;
+			}
+		}
+		return progress;
+	}
+}
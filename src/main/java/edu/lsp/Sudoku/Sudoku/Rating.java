@@ -0,0 +1,100 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * The difficulty of a puzzle as found by a {@link Rater}: the hardest
+ * {@link Technique} needed, and a score that adds up the weights of every
+ * step. Ratings are ordered by the hardest technique first, the score second
+ * and the number of steps last, so that a puzzle that needs one X-Wing is
+ * harder than one that needs many locked candidates, and the order agrees
+ * with {@link #equals(Object)}.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public final class Rating implements Comparable<Rating> {
+
+	private final Technique hardest;
+	private final int score;
+	private final int steps;
+
+	/**
+	 * Creates a rating.
+	 *
+	 * @param hardest
+	 *            The hardest technique needed.
+	 * @param score
+	 *            The total weight of the steps.
+	 * @param steps
+	 *            The number of steps.
+	 */
+	Rating(Technique hardest, int score, int steps) {
+		this.hardest = hardest;
+		this.score = score;
+		this.steps = steps;
+	}
+
+	/**
+	 * Returns the hardest technique needed, which is {@link Technique#TRIAL}
+	 * if the techniques could not solve the puzzle.
+	 *
+	 * @return The hardest technique needed.
+	 */
+	public Technique getHardest() {
+		return hardest;
+	}
+
+	/**
+	 * Returns the total weight of the steps taken.
+	 *
+	 * @return The total weight of the steps taken.
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Returns the number of steps taken. A step is one pass of a technique
+	 * over the whole grid.
+	 *
+	 * @return The number of steps taken.
+	 */
+	public int getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Returns <code>true</code> if the techniques solved the puzzle without
+	 * trial and error.
+	 *
+	 * @return <code>true</code> if the puzzle was solved by logic alone.
+	 */
+	public boolean isSolved() {
+		return hardest != Technique.TRIAL;
+	}
+
+	@Override
+	public int compareTo(Rating other) {
+		int order = hardest.compareTo(other.hardest);
+		if (order == 0)
+			order = Integer.compare(score, other.score);
+		return order != 0 ? order : Integer.compare(steps, other.steps);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof Rating))
+			return false;
+		Rating other = (Rating) object;
+		return hardest == other.hardest && score == other.score && steps == other.steps;
+	}
+
+	@Override
+	public int hashCode() {
+		return (hardest.hashCode() * 31 + score) * 31 + steps;
+	}
+
+	@Override
+	public String toString() {
+		return hardest + " " + score;
+	}
+}
@@ -0,0 +1,36 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * The unit-based rules that constraint propagation can apply on top of
+ * removing the value of a marked square from its peers, which is always done.
+ * Each rule can be turned on or off separately.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public enum Rule {
+    /**
+     * A value that has only one possible square in a unit is assigned to it.
+     */
+    HIDDEN_SINGLE,
+    /**
+     * Two squares of a unit with the same two candidates take those values
+     * away from the rest of the unit.
+     */
+    NAKED_PAIR,
+    /**
+     * Two values that are possible in the same two squares of a unit only
+     * take every other candidate away from those squares.
+     */
+    HIDDEN_PAIR,
+    /**
+     * Three squares of a unit with only three candidates between them take
+     * those values away from the rest of the unit.
+     */
+    NAKED_TRIPLE,
+    /**
+     * Three values that are possible in the same three squares of a unit only
+     * take every other candidate away from those squares.
+     */
+    HIDDEN_TRIPLE
+}
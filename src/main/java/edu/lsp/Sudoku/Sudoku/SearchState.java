@@ -0,0 +1,563 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A mutable counterpart of {@link Board}, used by the in-place search. Every
+ * change to a candidate mask is recorded on a trail, so that the search can
+ * return to an earlier state with {@link #undo(int)} instead of keeping a
+ * copy of every node.
+ * <p>
+ * Every contradiction is detected by the change that causes it, so no full
+ * scan like {@link Board#isWrong()} is needed: a value marked twice in a unit
+ * empties one of the squares when it is removed from its peers. With hidden
+ * singles enabled, the number of squares where each value is still possible
+ * in each unit is also kept up to date, which finds a value without a place
+ * as soon as it loses its last one, and every hidden single as soon as it
+ * appears, without scanning the units.
+ * <p>
+ * The squares are likewise kept in buckets by their number of candidates, so
+ * that the square to branch on and whether the state is solved are found
+ * without scanning the grid.
+ * <p>
+ * All the arrays are allocated once for the {@link Grid} of the instance,
+ * which makes it reusable for any number of searches of Boards of that grid.
+ * Instances are not thread-safe.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+class SearchState {
+
+	/**
+	 * The geometry of the Boards searched.
+	 */
+	private final Grid grid;
+
+	/**
+	 * The number of values, copied from the grid.
+	 */
+	private final int size;
+
+	/**
+	 * The tables of the grid, copied for quicker access.
+	 */
+	private final int[][] unitIndices;
+	private final int[][] peerIndices;
+	private final int[][] squareUnits;
+
+	/**
+	 * The current candidate masks of the squares.
+	 */
+	private final int[] masks;
+
+	/**
+	 * The squares whose masks have been changed, in order. A square can lose
+	 * each of its candidates at most once along a single path of the search,
+	 * which bounds the length of the trail.
+	 */
+	private final int[] trailSquares;
+
+	/**
+	 * The masks the squares had before being changed.
+	 */
+	private final int[] trailMasks;
+
+	/**
+	 * The number of entries on the trail.
+	 */
+	private int trailSize;
+
+	/**
+	 * The squares which have been marked but not yet removed from their peers.
+	 */
+	private final int[] queue;
+
+	/**
+	 * The number of squares in the queue.
+	 */
+	private int queueSize;
+
+	/**
+	 * The number of squares where each value is possible, indexed by
+	 * <code>unit * size + value</code>. Only kept if hidden singles are
+	 * enabled.
+	 */
+	private final int[] places;
+
+	/**
+	 * The (unit, value) pairs left with a single place, indexed like
+	 * {@link #places}. Only used if hidden singles are enabled.
+	 */
+	private final int[] hiddenSingles;
+
+	/**
+	 * The number of pairs in {@link #hiddenSingles}.
+	 */
+	private int hiddenSinglesSize;
+
+	/**
+	 * Whether hidden singles are assigned.
+	 */
+	private final boolean hiddenSinglesEnabled;
+
+	/**
+	 * The other unit-based rules applied once the queues are empty, or
+	 * <code>null</code> if none are enabled.
+	 */
+	private final UnitRules unitRules;
+
+	/**
+	 * The squares with each number of candidates, in no particular order. The
+	 * first {@link #bucketSizes}<code>[count]</code> entries of
+	 * <code>buckets[count]</code> are used.
+	 */
+	private final int[][] buckets;
+
+	/**
+	 * The number of squares in each bucket.
+	 */
+	private final int[] bucketSizes;
+
+	/**
+	 * The position of every square in its bucket.
+	 */
+	private final int[] bucketPositions;
+
+	/**
+	 * Bit <code>count</code> is set if the bucket for that number of
+	 * candidates is not empty.
+	 */
+	private int nonEmptyBuckets;
+
+	/**
+	 * How to choose among the squares with the fewest candidates.
+	 */
+	private final TieBreak tieBreak;
+
+	/**
+	 * The number of candidates removed and of propagation passes since the
+	 * last {@link #load(Board)}. They are only read by
+	 * {@link TrailSearch#solve(Board, int)}, but counting costs less than
+	 * checking whether to count.
+	 */
+	long eliminations;
+	long propagations;
+
+	/**
+	 * The number of unmarked peers of every square. Only kept for
+	 * {@link TieBreak#DEGREE}.
+	 */
+	private final int[] openPeers;
+
+	/**
+	 * Creates a state for the standard grid that only removes the values of
+	 * marked squares from their peers.
+	 */
+	SearchState() {
+		this(Grid.STANDARD, Collections.<Rule> emptySet(), TieBreak.FIRST);
+	}
+
+	/**
+	 * Creates a state for the standard grid that also applies the given
+	 * unit-based rules.
+	 *
+	 * @param rules
+	 *            The rules to apply during propagation.
+	 */
+	SearchState(Set<Rule> rules) {
+		this(Grid.STANDARD, rules, TieBreak.FIRST);
+	}
+
+	/**
+	 * Creates a state for the given grid that also applies the given
+	 * unit-based rules, and breaks ties between the squares with the fewest
+	 * candidates as given.
+	 *
+	 * @param grid
+	 *            The geometry of the Boards to search.
+	 * @param rules
+	 *            The rules to apply during propagation.
+	 * @param tieBreak
+	 *            How to choose among the squares with the fewest candidates.
+	 */
+	SearchState(Grid grid, Set<Rule> rules, TieBreak tieBreak) {
+		this.grid = grid;
+		this.size = grid.size;
+		this.unitIndices = grid.unitIndices;
+		this.peerIndices = grid.peerIndices;
+		this.squareUnits = grid.squareUnits;
+		int squares = grid.numberOfSquares;
+		masks = new int[squares];
+		trailSquares = new int[squares * size];
+		trailMasks = new int[squares * size];
+		queue = new int[squares];
+		places = new int[unitIndices.length * size];
+		hiddenSingles = new int[unitIndices.length * size];
+		buckets = new int[size + 1][squares];
+		bucketSizes = new int[size + 1];
+		bucketPositions = new int[squares];
+		openPeers = new int[squares];
+		this.tieBreak = tieBreak;
+		hiddenSinglesEnabled = rules.contains(Rule.HIDDEN_SINGLE);
+		// Hidden singles come from the counts, so the scans are not needed
+		Set<Rule> scanned = rules.isEmpty() ? EnumSet.noneOf(Rule.class) : EnumSet.copyOf(rules);
+		scanned.remove(Rule.HIDDEN_SINGLE);
+		UnitRules unitRules = new UnitRules(grid, scanned) {
+			@Override
+			protected boolean restrict(int square, int mask) {
+				return set(square, mask);
+			}
+		};
+		this.unitRules = unitRules.isEmpty() ? null : unitRules;
+	}
+
+	/**
+	 * Returns the geometry of the Boards this state can search.
+	 *
+	 * @return The geometry of the Boards this state can search.
+	 */
+	Grid grid() {
+		return grid;
+	}
+
+	/**
+	 * Loads the given Board, clearing the trail, and propagates the marked
+	 * squares.
+	 *
+	 * @param board
+	 *            The Board to start from, of the grid of this state.
+	 * @return <code>false</code> if the Board is found to be faulty.
+	 */
+	boolean load(Board board) {
+		board.copyCandidates(masks);
+		eliminations = 0;
+		propagations = 0;
+		trailSize = 0;
+		queueSize = 0;
+		hiddenSinglesSize = 0;
+		for (int unit = 0; hiddenSinglesEnabled && unit < unitIndices.length; unit++) {
+			int base = unit * size;
+			for (int value = 0; value < size; value++) {
+				places[base + value] = 0;
+			}
+			for (int square : unitIndices[unit]) {
+				for (int bits = masks[square]; bits != 0; bits &= bits - 1) {
+					places[base + Integer.numberOfTrailingZeros(bits)]++;
+				}
+			}
+			for (int value = 0; value < size; value++) {
+				if (places[base + value] == 0)
+					return false;
+				if (places[base + value] == 1)
+					hiddenSingles[hiddenSinglesSize++] = base + value;
+			}
+		}
+		for (int count = 0; count <= size; count++) {
+			bucketSizes[count] = 0;
+		}
+		nonEmptyBuckets = 0;
+		for (int square = 0; square < masks.length; square++) {
+			int mask = masks[square];
+			// a square without candidates would sit in bucket 0, which the
+			// choice of the next square never looks at
+			if (mask == 0)
+				return false;
+			add(square, Integer.bitCount(mask));
+			if ((mask & (mask - 1)) == 0) {
+				queue[queueSize++] = square;
+			}
+		}
+		if (tieBreak == TieBreak.DEGREE) {
+			for (int square = 0; square < masks.length; square++) {
+				int open = 0;
+				for (int peer : peerIndices[square]) {
+					if (Integer.bitCount(masks[peer]) > 1)
+						open++;
+				}
+				openPeers[square] = open;
+			}
+		}
+		return propagate();
+	}
+
+	/**
+	 * Returns the current position on the trail, to be passed to
+	 * {@link #undo(int)} later.
+	 *
+	 * @return The current position on the trail.
+	 */
+	int mark() {
+		return trailSize;
+	}
+
+	/**
+	 * Reverts every change made after the given mark was taken.
+	 *
+	 * @param mark
+	 *            A value previously returned by {@link #mark()}.
+	 */
+	void undo(int mark) {
+		while (trailSize > mark) {
+			trailSize--;
+			int square = trailSquares[trailSize];
+			int old = trailMasks[trailSize];
+			int mask = masks[square];
+			if (hiddenSinglesEnabled) {
+				int restored = old & ~mask;
+				for (int unit : squareUnits[square]) {
+					int base = unit * size;
+					for (int bits = restored; bits != 0; bits &= bits - 1) {
+						places[base + Integer.numberOfTrailingZeros(bits)]++;
+					}
+				}
+			}
+			recount(square, Integer.bitCount(mask), Integer.bitCount(old));
+			masks[square] = old;
+		}
+		queueSize = 0;
+		hiddenSinglesSize = 0;
+	}
+
+	/**
+	 * Returns the candidate mask of the given square.
+	 *
+	 * @param square
+	 *            The index of the square.
+	 * @return The candidate mask of the square.
+	 */
+	int candidates(int square) {
+		return masks[square];
+	}
+
+	/**
+	 * Marks the given square with a single value and propagates the change.
+	 *
+	 * @param square
+	 *            The index of the square.
+	 * @param value
+	 *            The mask of the single value to assign.
+	 * @return <code>false</code> if a contradiction is found.
+	 */
+	boolean assign(int square, int value) {
+		if ((masks[square] & value) == 0) {
+			return false;
+		}
+		return set(square, value) && propagate();
+	}
+
+	/**
+	 * Removes the marked values of the queued squares from their peers and
+	 * assigns the queued hidden singles, until no more squares get marked.
+	 * Then applies the other unit-based rules, and starts over until none of
+	 * them changes anything.
+	 *
+	 * @return <code>false</code> if a contradiction is found.
+	 */
+	private boolean propagate() {
+		while (true) {
+			propagations++;
+			if (!propagatePeers())
+				return false;
+			if (hiddenSinglesSize > 0) {
+				if (!assignHiddenSingle(hiddenSingles[--hiddenSinglesSize]))
+					return false;
+				continue;
+			}
+			if (unitRules == null)
+				return true;
+			int changes = unitRules.apply(masks);
+			if (changes < 0)
+				return false;
+			if (changes == 0)
+				return true;
+		}
+	}
+
+	/**
+	 * Removes the marked values of the queued squares from their peers, until
+	 * no more squares get marked.
+	 *
+	 * @return <code>false</code> if a contradiction is found.
+	 */
+	private boolean propagatePeers() {
+		while (queueSize > 0) {
+			int square = queue[--queueSize];
+			int value = masks[square];
+			for (int peer : peerIndices[square]) {
+				int peerValues = masks[peer];
+				if ((peerValues & value) != 0 && !set(peer, peerValues & ~value)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Marks the only square of a unit where a value is still possible.
+	 *
+	 * @param unitValue
+	 *            The (unit, value) pair, as <code>unit * size + value</code>.
+	 * @return <code>false</code> if a contradiction is found.
+	 */
+	private boolean assignHiddenSingle(int unitValue) {
+		int value = 1 << (unitValue % size);
+		for (int square : unitIndices[unitValue / size]) {
+			int mask = masks[square];
+			if ((mask & value) != 0) {
+				return mask == value || set(square, value);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Changes the mask of a square, recording the old one on the trail, and
+	 * updates the counts of its units. A square that gets marked is queued.
+	 * The counts are updated completely even if a contradiction is found, so
+	 * that {@link #undo(int)} restores them exactly.
+	 *
+	 * @param square
+	 *            The index of the square.
+	 * @param mask
+	 *            The new mask, a subset of the old one.
+	 * @return <code>false</code> if a contradiction is found.
+	 */
+	private boolean set(int square, int mask) {
+		int old = masks[square];
+		trailSquares[trailSize] = square;
+		trailMasks[trailSize] = old;
+		trailSize++;
+		masks[square] = mask;
+
+		boolean consistent = mask != 0;
+		if (hiddenSinglesEnabled) {
+			int removed = old & ~mask;
+			for (int unit : squareUnits[square]) {
+				int base = unit * size;
+				for (int bits = removed; bits != 0; bits &= bits - 1) {
+					int index = base + Integer.numberOfTrailingZeros(bits);
+					int count = --places[index];
+					if (count == 0) {
+						consistent = false;
+					} else if (count == 1) {
+						hiddenSingles[hiddenSinglesSize++] = index;
+					}
+				}
+			}
+		}
+		int before = Integer.bitCount(old);
+		int after = Integer.bitCount(mask);
+		eliminations += before - after;
+		recount(square, before, after);
+		if (consistent && (mask & (mask - 1)) == 0 && (old & (old - 1)) != 0) {
+			queue[queueSize++] = square;
+		}
+		return consistent;
+	}
+
+	/**
+	 * Moves a square whose number of candidates has changed to the right
+	 * bucket, and updates the number of unmarked peers if it has been marked
+	 * or unmarked.
+	 *
+	 * @param square
+	 *            The index of the square.
+	 * @param from
+	 *            The old number of candidates.
+	 * @param to
+	 *            The new number of candidates.
+	 */
+	private void recount(int square, int from, int to) {
+		if (from == to)
+			return;
+		remove(square, from);
+		add(square, to);
+		if (tieBreak == TieBreak.DEGREE && (from > 1) != (to > 1)) {
+			int change = to > 1 ? 1 : -1;
+			for (int peer : peerIndices[square]) {
+				openPeers[peer] += change;
+			}
+		}
+	}
+
+	/**
+	 * Appends a square to the bucket for the given number of candidates.
+	 */
+	private void add(int square, int count) {
+		int end = bucketSizes[count]++;
+		buckets[count][end] = square;
+		bucketPositions[square] = end;
+		nonEmptyBuckets |= 1 << count;
+	}
+
+	/**
+	 * Removes a square from the bucket for the given number of candidates,
+	 * moving the last square of the bucket into its place.
+	 */
+	private void remove(int square, int count) {
+		int[] bucket = buckets[count];
+		int end = --bucketSizes[count];
+		int last = bucket[end];
+		int position = bucketPositions[square];
+		bucket[position] = last;
+		bucketPositions[last] = position;
+		if (end == 0)
+			nonEmptyBuckets &= ~(1 << count);
+	}
+
+	/**
+	 * Returns the index of the unmarked square with the fewest candidates, or
+	 * -1 if every square is marked. The squares are kept in buckets by their
+	 * number of candidates, so the smallest bucket is found without a scan.
+	 * Ties are only scanned for with {@link TieBreak#DEGREE}.
+	 *
+	 * @return The index of the square with the minimum number of candidates.
+	 */
+	int minimumCandidateSquare() {
+		// Buckets 0 and 1 hold no unmarked squares
+		int open = nonEmptyBuckets & ~3;
+		if (open == 0)
+			return -1;
+		int count = Integer.numberOfTrailingZeros(open);
+		int[] bucket = buckets[count];
+		if (tieBreak == TieBreak.FIRST)
+			return bucket[0];
+		int minimum = bucket[0];
+		for (int i = 1; i < bucketSizes[count]; i++) {
+			if (openPeers[bucket[i]] > openPeers[minimum])
+				minimum = bucket[i];
+		}
+		return minimum;
+	}
+
+	/**
+	 * Returns <code>true</code> if every square is marked.
+	 *
+	 * @return <code>true</code> if every square is marked.
+	 */
+	boolean isSolved() {
+		return bucketSizes[1] == masks.length;
+	}
+
+	/**
+	 * Returns the number of squares that are not marked yet.
+	 *
+	 * @return The number of squares that are not marked yet.
+	 */
+	int openSquares() {
+		return masks.length - bucketSizes[0] - bucketSizes[1];
+	}
+
+	/**
+	 * Returns an immutable snapshot of the current state.
+	 *
+	 * @return An immutable snapshot of the current state.
+	 */
+	Board toBoard() {
+		return new Board(masks.clone());
+	}
+}
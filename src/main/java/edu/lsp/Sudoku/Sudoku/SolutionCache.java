@@ -0,0 +1,296 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of solutions in front of another {@link Solver}. Puzzles
+ * are keyed by their {@link Canonicalizer canonical form}, so a puzzle that
+ * is only a transposed, permuted or relabeled copy of a cached one is a hit
+ * too: its solutions are stored in the canonical orientation and mapped back
+ * through the {@link GridTransform} of the caller's puzzle.
+ * <p>
+ * The solutions kept are the ones the solver found, so they are as many as
+ * its limit allows, and a limit of 2 is enough to tell whether a puzzle has
+ * none, one or several. A solve that the solver stopped, by its timeout,
+ * its node budget or a token, is returned as it is and not cached. A hit
+ * returns at once, with no search statistics. Once the cache is full, the
+ * least recently used puzzle is evicted. The key is the full canonical form
+ * rather than a fingerprint, so a hit is always right.
+ * <p>
+ * Only standard puzzles whose squares are either given or fully open are
+ * cached; any other Board is passed on to the solver and not counted. An
+ * instance is as thread-safe as its solver, and the solving happens outside
+ * its lock.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class SolutionCache implements Solver {
+
+	/**
+	 * The canonicalizer of each thread.
+	 */
+	private static final ThreadLocal<Canonicalizer> CANONICALIZERS = ThreadLocal.withInitial(Canonicalizer::new);
+
+	private final Solver solver;
+	private final int capacity;
+
+	/**
+	 * The solves of every canonical form, from the least to the most recently
+	 * used. Guarded by itself.
+	 */
+	private final Map<String, Entry> entries;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * The solutions found for a canonical form, in the canonical orientation
+	 * and one byte per square.
+	 */
+	private static final class Entry {
+		final byte[][] solutions;
+		final boolean limitReached;
+
+		Entry(byte[][] solutions, boolean limitReached) {
+			this.solutions = solutions;
+			this.limitReached = limitReached;
+		}
+	}
+
+	/**
+	 * Creates a cache in front of the given solver that holds the solutions
+	 * of up to the given number of puzzles.
+	 *
+	 * @param solver
+	 *            The solver that solves the puzzles not in the cache.
+	 * @param capacity
+	 *            The largest number of puzzles kept.
+	 * @throws IllegalArgumentException
+	 *             If the capacity is not positive.
+	 */
+	public SolutionCache(Solver solver, int capacity) {
+		if (solver == null)
+			throw new IllegalArgumentException("The solver cannot be null.");
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		this.solver = solver;
+		this.capacity = capacity;
+		entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() <= SolutionCache.this.capacity)
+					return false;
+				evictions.incrementAndGet();
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Finds the solutions of the given puzzle like the solver, from the cache
+	 * if an equivalent puzzle was solved before.
+	 *
+	 * @param board
+	 *            The puzzle to solve.
+	 * @param token
+	 *            The token that cancels the search, or <code>null</code>.
+	 * @return The solutions, in the orientation of the given puzzle.
+	 */
+	@Override
+	public SolveResult solve(Board board, CancellationToken token) {
+		long start = System.nanoTime();
+		if (!isCacheable(board))
+			return solver.solve(board, token);
+		int[] values = new int[Constants.NUMBER_OF_SQUARES];
+		int[] canonical = new int[values.length];
+		GridTransform transform = canonicalize(board, values, canonical);
+		String key = toKey(canonical);
+
+		Entry cached;
+		synchronized (entries) {
+			cached = entries.get(key);
+		}
+		if (cached != null) {
+			hits.incrementAndGet();
+			SolveResult result = new SolveResult();
+			for (byte[] solution : cached.solutions) {
+				for (int square = 0; square < canonical.length; square++) {
+					canonical[square] = solution[square];
+				}
+				transform.revert(canonical, values);
+				result.solutions.add(toBoard(values));
+			}
+			result.limitReached = cached.limitReached;
+			result.totalNanos = System.nanoTime() - start;
+			return result;
+		}
+
+		misses.incrementAndGet();
+		SolveResult result = solver.solve(board, token);
+		if (result.getStatus() != SolveStatus.COMPLETED)
+			return result;
+		byte[][] stored = new byte[result.solutions.size()][canonical.length];
+		for (int i = 0; i < stored.length; i++) {
+			Board solution = result.solutions.get(i);
+			for (int square = 0; square < values.length; square++) {
+				values[square] = Integer.numberOfTrailingZeros(solution.candidates(square)) + 1;
+			}
+			transform.apply(values, canonical);
+			for (int square = 0; square < canonical.length; square++) {
+				stored[i][square] = (byte) canonical[square];
+			}
+		}
+		synchronized (entries) {
+			entries.put(key, new Entry(stored, result.limitReached));
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the solutions of the given puzzle like the solver. A puzzle in
+	 * the cache is counted from its solutions, since they are as many as the
+	 * limit allows; any other is counted by the solver and not cached.
+	 *
+	 * @param board
+	 *            The puzzle to solve.
+	 * @return The number of solutions, at most the limit of the solver.
+	 */
+	@Override
+	public long count(Board board) {
+		if (!isCacheable(board))
+			return solver.count(board);
+		int[] canonical = new int[Constants.NUMBER_OF_SQUARES];
+		canonicalize(board, new int[canonical.length], canonical);
+		Entry cached;
+		synchronized (entries) {
+			cached = entries.get(toKey(canonical));
+		}
+		if (cached == null) {
+			misses.incrementAndGet();
+			return solver.count(board);
+		}
+		hits.incrementAndGet();
+		return cached.solutions.length;
+	}
+
+	/**
+	 * Stores the values of the puzzle, 0 for an open square, and their
+	 * canonical form.
+	 *
+	 * @return The transformation from the puzzle to its canonical form.
+	 */
+	private static GridTransform canonicalize(Board board, int[] values, int[] canonical) {
+		for (int square = 0; square < values.length; square++) {
+			int mask = board.candidates(square);
+			values[square] = mask == Constants.ALL_CANDIDATES ? 0 : Integer.numberOfTrailingZeros(mask) + 1;
+		}
+		return CANONICALIZERS.get().canonicalize(values, canonical);
+	}
+
+	/**
+	 * Returns <code>true</code> if the Board is standard and every square is
+	 * either given or fully open.
+	 */
+	private static boolean isCacheable(Board board) {
+		if (board.getGrid() != Grid.STANDARD)
+			return false;
+		for (int square = 0; square < Constants.NUMBER_OF_SQUARES; square++) {
+			int mask = board.candidates(square);
+			if (mask != Constants.ALL_CANDIDATES && (mask == 0 || (mask & (mask - 1)) != 0))
+				return false;
+		}
+		return true;
+	}
+
+	private static String toKey(int[] canonical) {
+		char[] key = new char[canonical.length];
+		for (int square = 0; square < key.length; square++) {
+			key[square] = (char) ('0' + canonical[square]);
+		}
+		return new String(key);
+	}
+
+	private static Board toBoard(int[] values) {
+		int[] masks = new int[values.length];
+		for (int square = 0; square < masks.length; square++) {
+			masks[square] = 1 << (values[square] - 1);
+		}
+		return new Board(masks);
+	}
+
+	/**
+	 * Removes every puzzle from the cache. The counters are kept.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of puzzles in the cache.
+	 *
+	 * @return The number of puzzles in the cache.
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Returns the largest number of puzzles the cache holds.
+	 *
+	 * @return The capacity of the cache.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of puzzles found in the cache.
+	 *
+	 * @return The number of hits.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of puzzles that had to be passed on to the solver.
+	 *
+	 * @return The number of misses.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns the number of puzzles evicted to make room for others.
+	 *
+	 * @return The number of evictions.
+	 */
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * Prints the size of the cache and its counters.
+	 *
+	 * @param out
+	 *            The stream to print to.
+	 */
+	public void report(PrintStream out) {
+		long hits = getHits();
+		long lookups = hits + getMisses();
+		out.printf("cache      %d of %d puzzles, hits %d (%.1f%%), misses %d, evictions %d%n", size(), capacity,
+				hits, lookups > 0 ? 100.0 * hits / lookups : 0.0, getMisses(), getEvictions());
+	}
+}
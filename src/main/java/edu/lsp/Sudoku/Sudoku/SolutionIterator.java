@@ -0,0 +1,175 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Produces the solutions of a Board one at a time, only as they are asked
+ * for. It runs the same DFS as {@link TrailSearch}, in the same order, but on
+ * an explicit stack of one frame per assignment instead of the call stack,
+ * so the search can be suspended after every solution and resumed by the
+ * next call to {@link #next()}. A consumer can take the first few solutions,
+ * write each one as soon as it is found, or stop at any time; the memory
+ * used only depends on the size of the grid, not on the number of
+ * solutions.
+ * <p>
+ * An iterator owns its {@link SearchState} and must not be shared between
+ * threads.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public final class SolutionIterator implements Iterator<Board> {
+
+	private final SearchState state;
+
+	/**
+	 * The square branched on in every frame.
+	 */
+	private final int[] squares;
+
+	/**
+	 * The candidates of the square of every frame that are still to be
+	 * tried.
+	 */
+	private final int[] remaining;
+
+	/**
+	 * The mark of the trail to undo to before the next candidate of every
+	 * frame is tried.
+	 */
+	private final int[] marks;
+
+	/**
+	 * The number of frames on the stack.
+	 */
+	private int depth;
+
+	/**
+	 * The solution to return next, or <code>null</code> if it has not been
+	 * searched for yet.
+	 */
+	private Board next;
+
+	/**
+	 * Creates an iterator over the solutions of the given Board that only
+	 * removes the values of marked squares from their peers during
+	 * propagation.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 */
+	public SolutionIterator(Board board) {
+		this(board, Collections.<Rule> emptySet(), TieBreak.FIRST);
+	}
+
+	/**
+	 * Creates an iterator over the solutions of the given Board that also
+	 * applies the given unit-based rules during propagation, and breaks ties
+	 * between the squares with the fewest candidates as given.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param rules
+	 *            The rules to apply.
+	 * @param tieBreak
+	 *            How to choose among the squares with the fewest candidates.
+	 */
+	public SolutionIterator(Board board, Set<Rule> rules, TieBreak tieBreak) {
+		Grid grid = board.getGrid();
+		state = new SearchState(grid, rules, tieBreak);
+		squares = new int[grid.numberOfSquares];
+		remaining = new int[grid.numberOfSquares];
+		marks = new int[grid.numberOfSquares];
+		if (!state.load(board))
+			return;
+		int square = state.minimumCandidateSquare();
+		if (square == -1) {
+			next = state.toBoard();
+		} else {
+			push(square);
+		}
+	}
+
+	/**
+	 * Returns a sequential stream of the solutions of the given Board, found
+	 * as the stream is consumed.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @return The solutions of the Board.
+	 */
+	public static Stream<Board> stream(Board board) {
+		return stream(new SolutionIterator(board));
+	}
+
+	/**
+	 * Returns a sequential stream of the solutions of the iterator.
+	 *
+	 * @param iterator
+	 *            The solutions to stream.
+	 * @return The remaining solutions of the iterator.
+	 */
+	public static Stream<Board> stream(SolutionIterator iterator) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+				Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null)
+			next = advance();
+		return next != null;
+	}
+
+	@Override
+	public Board next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		Board solution = next;
+		next = null;
+		return solution;
+	}
+
+	/**
+	 * Adds a frame that branches on the given square of the current state.
+	 */
+	private void push(int square) {
+		squares[depth] = square;
+		remaining[depth] = state.candidates(square);
+		marks[depth] = state.mark();
+		depth++;
+	}
+
+	/**
+	 * Resumes the search where the last solution was found.
+	 *
+	 * @return The next solution, or <code>null</code> if there are no more.
+	 */
+	private Board advance() {
+		while (depth > 0) {
+			int frame = depth - 1;
+			state.undo(marks[frame]);
+			int bits = remaining[frame];
+			if (bits == 0) {
+				depth--;
+				continue;
+			}
+			remaining[frame] = bits & (bits - 1);
+			if (!state.assign(squares[frame], bits & -bits))
+				continue;
+			int square = state.minimumCandidateSquare();
+			// The frame stays, so the next call undoes this solution
+			if (square == -1)
+				return state.toBoard();
+			push(square);
+		}
+		return null;
+	}
+}
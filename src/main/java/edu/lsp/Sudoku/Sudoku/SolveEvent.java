@@ -0,0 +1,82 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event for one puzzle solved by a {@link Solver}.
+ * Only solves that take longer than the threshold are recorded, 10 ms unless
+ * the recording sets another one, so a continuous recording only sees the
+ * puzzles worth looking at.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+@Name(SolveEvent.NAME)
+@Label("Solve")
+@Category("Sudoku")
+@Description("A puzzle solved by a Solver")
+@StackTrace(false)
+@Threshold("10 ms")
+final class SolveEvent extends Event {
+
+	static final String NAME = "edu.lsp.Sudoku.Solve";
+
+	@Label("Engine")
+	String engine;
+
+	@Label("Clues")
+	@Description("The number of squares given a value")
+	int clues;
+
+	@Label("Nodes")
+	long nodes;
+
+	@Label("Backtracks")
+	long backtracks;
+
+	@Label("Solutions")
+	int solutions;
+
+	@Label("Result")
+	String result;
+
+	/**
+	 * Ends the event and commits it if the recording wants it.
+	 *
+	 * @param engine
+	 *            The engine that solved the Board.
+	 * @param board
+	 *            The Board that was solved.
+	 * @param solveResult
+	 *            The result of the solve.
+	 */
+	void commit(Engine engine, Board board, SolveResult solveResult) {
+		end();
+		if (!shouldCommit())
+			return;
+		this.engine = engine.name();
+		if (board != null) {
+			for (int square = 0; square < board.getGrid().numberOfSquares; square++) {
+				int mask = board.candidates(square);
+				if (Integer.bitCount(mask) == 1)
+					clues++;
+			}
+		}
+		nodes = solveResult.nodes;
+		backtracks = solveResult.backtracks;
+		solutions = solveResult.solutions.size();
+		if (solveResult.status != SolveStatus.COMPLETED) {
+			result = solveResult.status.name();
+		} else {
+			result = solutions == 0 ? BatchSolver.NO_SOLUTION
+					: solutions == 1 ? "solved" : BatchSolver.MULTIPLE_SOLUTIONS;
+		}
+		commit();
+	}
+}
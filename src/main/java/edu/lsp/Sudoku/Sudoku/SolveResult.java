@@ -0,0 +1,150 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The solutions found by one solve, with statistics of the search that found
+ * them: how many nodes it visited and how deep it went, how much propagation
+ * it did, and where its time went. It tells a puzzle that needs a big tree
+ * from one that needs a lot of propagation per node.
+ * <p>
+ * The counters are filled in by {@link Solver#solve(Board)}. The engines
+ * that do not search node by node ({@link Engine#DANCING_LINKS} and
+ * {@link Engine#PARALLEL}) only fill in the solutions, the total time and
+ * whether the limit was hit.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public final class SolveResult {
+
+	final List<Board> solutions = new ArrayList<>();
+	long nodes;
+	long backtracks;
+	int maxDepth;
+	long propagations;
+	long eliminations;
+	long propagationNanos;
+	long totalNanos;
+	boolean limitReached;
+	SolveStatus status = SolveStatus.COMPLETED;
+
+	/**
+	 * Returns the solutions found, at most as many as the limit.
+	 *
+	 * @return The solutions found.
+	 */
+	public List<Board> getSolutions() {
+		return solutions;
+	}
+
+	/**
+	 * Returns the number of nodes of the search tree visited, including the
+	 * root and the solutions.
+	 *
+	 * @return The number of nodes visited.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns the number of times an assignment was undone, either because
+	 * propagation found a contradiction or because every branch below it was
+	 * tried.
+	 *
+	 * @return The number of backtracks.
+	 */
+	public long getBacktracks() {
+		return backtracks;
+	}
+
+	/**
+	 * Returns the largest number of assignments made on one path, 0 if the
+	 * puzzle was solved without branching.
+	 *
+	 * @return The maximum depth of the search.
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Returns the number of propagation passes. A pass removes the values of
+	 * the newly marked squares from their peers, or assigns a hidden single,
+	 * or applies the unit-based rules once.
+	 *
+	 * @return The number of propagation passes.
+	 */
+	public long getPropagations() {
+		return propagations;
+	}
+
+	/**
+	 * Returns the number of candidates removed by propagation.
+	 *
+	 * @return The number of candidates removed.
+	 */
+	public long getEliminations() {
+		return eliminations;
+	}
+
+	/**
+	 * Returns the time spent in propagation, including the propagation of the
+	 * given values.
+	 *
+	 * @return The time spent in propagation, in nanoseconds.
+	 */
+	public long getPropagationNanos() {
+		return propagationNanos;
+	}
+
+	/**
+	 * Returns the time spent outside propagation: choosing the squares to
+	 * branch on, undoing changes and recording solutions.
+	 *
+	 * @return The time spent branching, in nanoseconds.
+	 */
+	public long getBranchingNanos() {
+		return totalNanos - propagationNanos;
+	}
+
+	/**
+	 * Returns the time the whole solve took.
+	 *
+	 * @return The time the whole solve took, in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * Returns how the search ended. Unless it is
+	 * {@link SolveStatus#COMPLETED}, the search was stopped early and the
+	 * solutions and the statistics are those gathered so far.
+	 *
+	 * @return How the search ended.
+	 */
+	public SolveStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Returns <code>true</code> if the search stopped because it found as
+	 * many solutions as it was allowed to, so there may be more.
+	 *
+	 * @return <code>true</code> if the limit was reached.
+	 */
+	public boolean isLimitReached() {
+		return limitReached;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s, solutions %d%s, nodes %d, backtracks %d, max depth %d, propagations %d, "
+				+ "eliminations %d, propagation %.1f us, branching %.1f us", status, solutions.size(),
+				limitReached ? " (limit)" : "", nodes, backtracks, maxDepth, propagations, eliminations,
+				propagationNanos / 1e3, getBranchingNanos() / 1e3);
+	}
+}
@@ -0,0 +1,485 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local HTTP service that solves puzzles, built on the JDK's own
+ * <code>com.sun.net.httpserver</code>. It has two endpoints, both taking the
+ * puzzles in the body of a POST and answering in plain text with the lines
+ * of {@link BatchSolver}:
+ * <ul>
+ * <li><code>/solve</code> solves the puzzle on the first line. The status is
+ * 400 if it cannot be parsed, and 413 if the line is longer than
+ * {@link #MAX_LINE_LENGTH}.</li>
+ * <li><code>/batch</code> solves one puzzle per line, skipping the lines
+ * {@link BatchSolver} skips, and streams one line per puzzle back as the
+ * solutions are found. A line that is too long is answered as
+ * {@link BatchSolver#INVALID}.</li>
+ * </ul>
+ * Every request runs on its own virtual thread when the JDK has them (Java
+ * 21 and later), and on a cached pool of platform threads otherwise. The
+ * number of puzzles being solved at once is limited, to the number of cores
+ * by default, so an overload makes the requests wait for a permit instead of
+ * slowing down every solve. A batch takes one permit per puzzle, so it does
+ * not hold up the single requests. Every permit comes with a search of its
+ * own, which is reused by every solve that holds it, since a virtual thread
+ * per request would otherwise build a new one for every request. A
+ * {@link SolutionCache} of {@link #CACHE_CAPACITY} puzzles sits in front of
+ * the permits, so a puzzle that was solved before, or an equivalent one, is
+ * answered without waiting.
+ * <p>
+ * Every solve has a timeout, {@link #DEFAULT_TIMEOUT_MILLIS} by default, so
+ * a crafted puzzle cannot hold a permit for long. A puzzle that runs out of
+ * time is answered as {@link #TIMED_OUT}, with the status 503 on
+ * <code>/solve</code>.
+ * <p>
+ * Only {@link #MAX_LINE_LENGTH} characters of a line are ever held in
+ * memory, whatever the client sends. The service has no authentication, so
+ * {@link #main(String[])} only listens on the loopback address unless told
+ * otherwise.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class SolveServer implements AutoCloseable {
+
+	/**
+	 * The port used when none is given.
+	 */
+	public static final int DEFAULT_PORT = 8080;
+
+	/**
+	 * The longest line accepted, enough for the largest grid with a space
+	 * between the squares.
+	 */
+	public static final int MAX_LINE_LENGTH = 1 << 12;
+
+	/**
+	 * The time a solve may take when no timeout is given, in milliseconds.
+	 */
+	public static final long DEFAULT_TIMEOUT_MILLIS = 10000;
+
+	/**
+	 * The line written for a puzzle whose solve ran out of time.
+	 */
+	public static final String TIMED_OUT = "timed out";
+
+	/**
+	 * The line written for a puzzle whose solve was stopped because the
+	 * service is closing.
+	 */
+	public static final String ABORTED = "aborted";
+
+	/**
+	 * The number of puzzles whose solutions are cached.
+	 */
+	public static final int CACHE_CAPACITY = 1 << 14;
+
+	/**
+	 * The size of the I/O buffers of a batch.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Finds up to two solutions, which tells a unique solution from several.
+	 */
+	private final EngineSolver engineSolver;
+
+	/**
+	 * The cache, in front of the solves that hold a permit.
+	 */
+	private final SolutionCache cache;
+
+	/**
+	 * The searches not in use, one for every free permit.
+	 */
+	private final Queue<TrailSearch> searches = new ConcurrentLinkedQueue<>();
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final boolean virtual;
+	private final int concurrency;
+	private final Semaphore permits;
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong puzzles = new AtomicLong();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	/**
+	 * Creates a service on the given address that solves as many puzzles at
+	 * once as there are cores, with the default timeout. It does not accept
+	 * requests before {@link #start()}.
+	 *
+	 * @param address
+	 *            The address to listen on. Port 0 picks a free port.
+	 * @throws IOException
+	 *             If the address cannot be bound.
+	 */
+	public SolveServer(InetSocketAddress address) throws IOException {
+		this(address, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a service on the given address that solves at most the given
+	 * number of puzzles at once, with the default timeout. It does not accept
+	 * requests before {@link #start()}.
+	 *
+	 * @param address
+	 *            The address to listen on. Port 0 picks a free port.
+	 * @param concurrency
+	 *            The largest number of puzzles solved at once.
+	 * @throws IOException
+	 *             If the address cannot be bound.
+	 */
+	public SolveServer(InetSocketAddress address, int concurrency) throws IOException {
+		this(address, concurrency, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Creates a service on the given address that solves at most the given
+	 * number of puzzles at once, each within the given time. It does not
+	 * accept requests before {@link #start()}.
+	 *
+	 * @param address
+	 *            The address to listen on. Port 0 picks a free port.
+	 * @param concurrency
+	 *            The largest number of puzzles solved at once.
+	 * @param timeout
+	 *            The time a solve may take.
+	 * @param unit
+	 *            The unit of the timeout.
+	 * @throws IOException
+	 *             If the address cannot be bound.
+	 */
+	public SolveServer(InetSocketAddress address, int concurrency, long timeout, TimeUnit unit)
+			throws IOException {
+		if (concurrency < 1)
+			throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+		this.concurrency = concurrency;
+		engineSolver = (EngineSolver) Solver.builder().rules(EnumSet.of(Rule.HIDDEN_SINGLE)).limit(2)
+				.timeout(timeout, unit).build();
+		for (int i = 0; i < concurrency; i++) {
+			searches.add(engineSolver.newTrailSearch());
+		}
+		cache = new SolutionCache(new PermitSolver(), CACHE_CAPACITY);
+		permits = new Semaphore(concurrency, true);
+		ExecutorService virtualExecutor = newVirtualThreadExecutor();
+		virtual = virtualExecutor != null;
+		executor = virtual ? virtualExecutor : Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "sudoku-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server = HttpServer.create(address, 0);
+		server.setExecutor(executor);
+		server.createContext("/solve", post(this::handleSolve));
+		server.createContext("/batch", post(this::handleBatch));
+	}
+
+	/**
+	 * Returns an executor that starts a virtual thread per task, or
+	 * <code>null</code> if the JDK has no virtual threads. Reflection keeps
+	 * the class loadable by older JDKs.
+	 */
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Starts accepting requests.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops accepting requests, closes the connections and stops the
+	 * threads. The requests in progress are cut off.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Returns the port the service listens on.
+	 *
+	 * @return The port the service listens on.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Returns <code>true</code> if every request runs on a virtual thread.
+	 *
+	 * @return <code>true</code> if virtual threads are used.
+	 */
+	public boolean isVirtual() {
+		return virtual;
+	}
+
+	/**
+	 * Returns the number of requests handled.
+	 *
+	 * @return The number of requests.
+	 */
+	public long getRequests() {
+		return requests.get();
+	}
+
+	/**
+	 * Returns the number of puzzles handled, including the invalid ones.
+	 *
+	 * @return The number of puzzles.
+	 */
+	public long getPuzzles() {
+		return puzzles.get();
+	}
+
+	/**
+	 * Returns the largest number of puzzles that were solved at once, which
+	 * never exceeds the concurrency.
+	 *
+	 * @return The largest number of puzzles solved at once.
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight.get();
+	}
+
+	/**
+	 * Returns the cache in front of the solves.
+	 *
+	 * @return The cache of solutions.
+	 */
+	public SolutionCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Prints the threads, the counters, the peak concurrency and the cache.
+	 *
+	 * @param out
+	 *            The stream to print to.
+	 */
+	public void report(PrintStream out) {
+		out.printf("threads    %s%n", virtual ? "virtual" : "platform");
+		out.printf("requests   %d, puzzles %d, max in flight %d of %d%n", getRequests(), getPuzzles(),
+				getMaxInFlight(), concurrency);
+		cache.report(out);
+	}
+
+	/**
+	 * Wraps a handler so that it only accepts POST, counts the request and
+	 * always closes the exchange.
+	 */
+	private HttpHandler post(HttpHandler handler) {
+		return exchange -> {
+			try {
+				requests.incrementAndGet();
+				if (!exchange.getRequestMethod().equals("POST")) {
+					exchange.getResponseHeaders().set("Allow", "POST");
+					exchange.sendResponseHeaders(405, -1);
+				} else {
+					handler.handle(exchange);
+				}
+			} finally {
+				exchange.close();
+			}
+		};
+	}
+
+	private void handleSolve(HttpExchange exchange) throws IOException {
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(exchange.getRequestBody(), StandardCharsets.US_ASCII));
+		String line = readLine(reader);
+		String result = solve(line == null ? "" : line);
+		byte[] body = (result + "\n").getBytes(StandardCharsets.US_ASCII);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=us-ascii");
+		int status = 200;
+		if (line != null && line.length() > MAX_LINE_LENGTH) {
+			status = 413;
+		} else if (result.equals(BatchSolver.INVALID)) {
+			status = 400;
+		} else if (result.equals(TIMED_OUT) || result.equals(ABORTED)) {
+			status = 503;
+		}
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	/**
+	 * Solves the lines of the body one by one. The output is flushed whenever
+	 * the next line has not arrived yet, so a client that streams its puzzles
+	 * gets each solution as soon as it is found.
+	 */
+	private void handleBatch(HttpExchange exchange) throws IOException {
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(exchange.getRequestBody(), StandardCharsets.US_ASCII), BUFFER_SIZE);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=us-ascii");
+		exchange.sendResponseHeaders(200, 0);
+		try (Writer writer = new BufferedWriter(
+				new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+			String line;
+			while ((line = readLine(reader)) != null) {
+				if (BatchSolver.isSkipped(line))
+					continue;
+				writer.write(solve(line));
+				writer.write('\n');
+				if (!reader.ready())
+					writer.flush();
+			}
+		}
+	}
+
+	/**
+	 * Reads the next line without its line ending, like
+	 * {@link BufferedReader#readLine()}. Only the first
+	 * <code>MAX_LINE_LENGTH + 1</code> characters of a line are kept and the
+	 * rest is skipped, so a line that is too long takes no more memory and is
+	 * told apart by its length.
+	 *
+	 * @param reader
+	 *            The body of the request.
+	 * @return The line, or <code>null</code> at the end of the body.
+	 * @throws IOException
+	 *             If the body cannot be read.
+	 */
+	static String readLine(BufferedReader reader) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int c;
+		while ((c = reader.read()) >= 0 && c != '\n') {
+			if (c == '\r') {
+				reader.mark(1);
+				if (reader.read() != '\n')
+					reader.reset();
+				break;
+			}
+			if (line.length() <= MAX_LINE_LENGTH)
+				line.append((char) c);
+		}
+		return c < 0 && line.length() == 0 ? null : line.toString();
+	}
+
+	/**
+	 * Solves one puzzle, from the cache or once a permit is free.
+	 *
+	 * @param line
+	 *            The puzzle.
+	 * @return The line to answer with.
+	 */
+	private String solve(String line) {
+		puzzles.incrementAndGet();
+		if (line.length() > MAX_LINE_LENGTH)
+			return BatchSolver.INVALID;
+		Board board;
+		try {
+			board = Parser.parse(line);
+		} catch (IllegalArgumentException e) {
+			return BatchSolver.INVALID;
+		}
+		SolveResult result = cache.solve(board);
+		if (result.getStatus() == SolveStatus.TIMED_OUT)
+			return TIMED_OUT;
+		if (result.getStatus() == SolveStatus.ABORTED)
+			return ABORTED;
+		int count = result.getSolutions().size();
+		return count == 1 ? result.getSolutions().get(0).toLine()
+				: count == 0 ? BatchSolver.NO_SOLUTION : BatchSolver.MULTIPLE_SOLUTIONS;
+	}
+
+	/**
+	 * Solves once a permit is free, with the search that comes with the
+	 * permit. A thread that is interrupted while waiting, which happens when
+	 * the service is closed, gets {@link SolveStatus#ABORTED}.
+	 */
+	private final class PermitSolver implements Solver {
+
+		@Override
+		public SolveResult solve(Board board, CancellationToken token) {
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				SolveResult result = new SolveResult();
+				result.status = SolveStatus.ABORTED;
+				return result;
+			}
+			TrailSearch search = searches.poll();
+			try {
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				return engineSolver.solve(board, token, search);
+			} finally {
+				searches.add(search);
+				inFlight.decrementAndGet();
+				permits.release();
+			}
+		}
+
+		@Override
+		public long count(Board board) {
+			return solve(board, null).getSolutions().size();
+		}
+	}
+
+	/**
+	 * Runs the service till the process is stopped.
+	 *
+	 * @param args
+	 *            The port ({@link #DEFAULT_PORT} by default), the largest
+	 *            number of puzzles solved at once (the number of cores by
+	 *            default), the address to listen on (the loopback address by
+	 *            default) and the timeout of a solve in milliseconds
+	 *            ({@link #DEFAULT_TIMEOUT_MILLIS} by default), all optional.
+	 *            Give <code>0.0.0.0</code> to listen on every interface.
+	 * @throws IOException
+	 *             If the address cannot be found or bound.
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		InetAddress address = args.length > 2 ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress();
+		long timeout = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_TIMEOUT_MILLIS;
+		SolveServer server = new SolveServer(new InetSocketAddress(address, port), concurrency, timeout,
+				TimeUnit.MILLISECONDS);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			server.close();
+			server.report(System.err);
+		}));
+		server.start();
+		System.err.printf("listening  %s port %d, %s threads, %d solves at once, timeout %d ms%n",
+				address.getHostAddress(), server.getPort(), server.isVirtual() ? "virtual" : "platform", concurrency,
+				timeout);
+	}
+}
@@ -0,0 +1,27 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * How a solve ended. Only a completed solve is guaranteed to have found every
+ * solution up to its limit; the others return what was found before they
+ * stopped.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public enum SolveStatus {
+    /**
+     * The search went through the whole tree, or stopped at the limit on the
+     * number of solutions.
+     */
+    COMPLETED,
+    /**
+     * The deadline passed or the node budget was used up before the search
+     * was done.
+     */
+    TIMED_OUT,
+    /**
+     * The search was cancelled through its {@link CancellationToken}, or its
+     * thread was interrupted.
+     */
+    ABORTED
+}
@@ -0,0 +1,208 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A configured way of solving Boards that can be embedded in other programs.
+ * Instances are created by a {@link Builder}, are thread-safe and are meant
+ * to be kept and reused: each thread that solves with an instance gets its
+ * own search, which is reused by all its later calls, so a solve allocates
+ * little beyond its result.
+ * <p>
+ * A solve can be bounded by a timeout and a node budget, set on the builder,
+ * and cancelled through a {@link CancellationToken} or by interrupting its
+ * thread. A bounded solve that is stopped returns what it found so far, with
+ * {@link SolveStatus#TIMED_OUT} or {@link SolveStatus#ABORTED}. The interrupt
+ * status is left set.
+ * <p>
+ * <pre>
+ * Solver solver = Solver.builder().engine(Engine.TRAIL).rules(EnumSet.of(Rule.HIDDEN_SINGLE)).limit(2).build();
+ * SolveResult result = solver.solve(board);
+ * </pre>
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public interface Solver {
+
+	/**
+	 * Finds the solutions of the given Board, up to the limit of this
+	 * solver, and collects the statistics of the search.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @return The solutions and the statistics of the search.
+	 */
+	default SolveResult solve(Board board) {
+		return solve(board, null);
+	}
+
+	/**
+	 * Finds the solutions of the given Board, up to the limit of this
+	 * solver, and collects the statistics of the search. The search stops
+	 * early once the token is cancelled.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param token
+	 *            The token that cancels the search, or <code>null</code>.
+	 * @return The solutions and the statistics of the search.
+	 */
+	SolveResult solve(Board board, CancellationToken token);
+
+	/**
+	 * Counts the solutions of the given Board without creating them, up to
+	 * the limit of this solver. Counting is not bounded by the timeout or the
+	 * node budget.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @return The number of solutions, at most the limit.
+	 */
+	long count(Board board);
+
+	/**
+	 * Returns a builder with the default settings: the {@link Engine#TRAIL}
+	 * engine, no rules, {@link TieBreak#FIRST}, no limit, no timeout and no
+	 * node budget.
+	 *
+	 * @return A new builder.
+	 */
+	static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Collects the settings of a {@link Solver}. A builder can build any
+	 * number of solvers, and later changes do not affect the ones already
+	 * built.
+	 */
+	final class Builder {
+
+		private Engine engine = Engine.TRAIL;
+		private Set<Rule> rules = EnumSet.noneOf(Rule.class);
+		private TieBreak tieBreak = TieBreak.FIRST;
+		private int limit = Integer.MAX_VALUE;
+		private long timeout = Long.MAX_VALUE;
+		private long nodeBudget = Long.MAX_VALUE;
+
+		Builder() {
+		}
+
+		/**
+		 * Sets the engine to search with.
+		 *
+		 * @param engine
+		 *            The engine to search with.
+		 * @return This builder.
+		 */
+		public Builder engine(Engine engine) {
+			if (engine == null)
+				throw new IllegalArgumentException("The engine cannot be null.");
+			this.engine = engine;
+			return this;
+		}
+
+		/**
+		 * Sets the unit-based rules applied during propagation. Only the
+		 * {@link Engine#TRAIL} and {@link Engine#PROPAGATION} engines
+		 * propagate with rules.
+		 *
+		 * @param rules
+		 *            The rules to apply.
+		 * @return This builder.
+		 */
+		public Builder rules(Set<Rule> rules) {
+			this.rules = rules.isEmpty() ? EnumSet.noneOf(Rule.class) : EnumSet.copyOf(rules);
+			return this;
+		}
+
+		/**
+		 * Sets how to choose among the squares with the fewest candidates when
+		 * branching. Only the {@link Engine#TRAIL} engine supports another
+		 * choice than {@link TieBreak#FIRST}.
+		 *
+		 * @param tieBreak
+		 *            How to choose among the squares with the fewest
+		 *            candidates.
+		 * @return This builder.
+		 */
+		public Builder tieBreak(TieBreak tieBreak) {
+			if (tieBreak == null)
+				throw new IllegalArgumentException("The tie-break cannot be null.");
+			this.tieBreak = tieBreak;
+			return this;
+		}
+
+		/**
+		 * Sets the number of solutions at which the search stops. A limit of
+		 * 2 is enough to tell whether a puzzle has a unique solution.
+		 *
+		 * @param limit
+		 *            The maximum number of solutions to find.
+		 * @return This builder.
+		 */
+		public Builder limit(int limit) {
+			if (limit < 1)
+				throw new IllegalArgumentException("The limit must be positive: " + limit);
+			this.limit = limit;
+			return this;
+		}
+
+		/**
+		 * Sets the time a solve may take, counted from its start. Only the
+		 * {@link Engine#TRAIL} and {@link Engine#PROPAGATION} engines can be
+		 * stopped.
+		 *
+		 * @param timeout
+		 *            The time a solve may take.
+		 * @param unit
+		 *            The unit of the timeout.
+		 * @return This builder.
+		 */
+		public Builder timeout(long timeout, TimeUnit unit) {
+			if (timeout < 0)
+				throw new IllegalArgumentException("The timeout cannot be negative: " + timeout);
+			this.timeout = unit.toNanos(timeout);
+			return this;
+		}
+
+		/**
+		 * Sets the number of nodes a solve may visit, including the root.
+		 * Unlike a timeout, it stops a search at the same point on every
+		 * machine. Only the {@link Engine#TRAIL} and
+		 * {@link Engine#PROPAGATION} engines can be stopped.
+		 *
+		 * @param nodes
+		 *            The number of nodes a solve may visit.
+		 * @return This builder.
+		 */
+		public Builder nodeBudget(long nodes) {
+			if (nodes < 1)
+				throw new IllegalArgumentException("The node budget must be positive: " + nodes);
+			this.nodeBudget = nodes;
+			return this;
+		}
+
+		/**
+		 * Creates a solver with the current settings.
+		 *
+		 * @return A new solver.
+		 * @throws IllegalArgumentException
+		 *             If the engine does not support the rules, the tie-break,
+		 *             the timeout or the node budget.
+		 */
+		public Solver build() {
+			if (!rules.isEmpty() && engine != Engine.TRAIL && engine != Engine.PROPAGATION)
+				throw new IllegalArgumentException(engine + " does not propagate with rules.");
+			if (tieBreak != TieBreak.FIRST && engine != Engine.TRAIL)
+				throw new IllegalArgumentException(engine + " does not support " + tieBreak + ".");
+			if ((timeout != Long.MAX_VALUE || nodeBudget != Long.MAX_VALUE) && engine != Engine.TRAIL
+					&& engine != Engine.PROPAGATION)
+				throw new IllegalArgumentException(engine + " cannot be stopped early.");
+			return new EngineSolver(engine, rules, tieBreak, limit, timeout, nodeBudget);
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * The patterns the clues of a generated puzzle can follow. Every square is
+ * paired with its image under the symmetry, and the two are always removed
+ * together.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public enum Symmetry {
+    /**
+     * The clues follow no pattern.
+     */
+    NONE,
+    /**
+     * The clues look the same after turning the grid by 180 degrees.
+     */
+    ROTATIONAL,
+    /**
+     * The clues look the same in a mirror placed on the middle column.
+     */
+    MIRROR,
+    /**
+     * The clues look the same after swapping the rows and the columns.
+     */
+    DIAGONAL;
+
+    /**
+     * Returns the square paired with the given one, which may be the square
+     * itself.
+     *
+     * @param grid   The geometry of the puzzle.
+     * @param square The index of the square.
+     * @return The index of the square paired with the given one.
+     */
+    int partner(Grid grid, int square) {
+        int size = grid.size;
+        int row = square / size;
+        int col = square % size;
+        switch (this) {
+            case ROTATIONAL:
+                return grid.numberOfSquares - 1 - square;
+            case MIRROR:
+                return row * size + size - 1 - col;
+            case DIAGONAL:
+                return col * size + row;
+            default:
+                return square;
+        }
+    }
+}
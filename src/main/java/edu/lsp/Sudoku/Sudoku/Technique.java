@@ -0,0 +1,87 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * The logical techniques a {@link Rater} tries, from the easiest to the
+ * hardest. The {@link Rater} always uses the easiest one that makes progress,
+ * so the hardest technique needed says how hard a puzzle is for a person.
+ * <p>
+ * The weights follow the scale of the common human raters, in tenths: a
+ * hidden single is worth 1.5, an X-Wing 3.2.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public enum Technique {
+    /**
+     * A value that has only one possible square in a unit is placed there.
+     */
+    HIDDEN_SINGLE(15),
+    /**
+     * A square that has only one candidate left gets that value.
+     */
+    NAKED_SINGLE(23),
+    /**
+     * The squares of a value in a square unit all lie on one row or column,
+     * or those of a row or column all lie in one square unit, so the value
+     * is removed from the rest of the other unit.
+     */
+    LOCKED_CANDIDATES(26),
+    /**
+     * See {@link Rule#NAKED_PAIR}.
+     */
+    NAKED_PAIR(30),
+    /**
+     * The squares of a value in two rows lie in the same two columns, so
+     * the value is removed from the rest of those columns, or the other way
+     * round.
+     */
+    X_WING(32),
+    /**
+     * See {@link Rule#HIDDEN_PAIR}.
+     */
+    HIDDEN_PAIR(34),
+    /**
+     * See {@link Rule#NAKED_TRIPLE}.
+     */
+    NAKED_TRIPLE(36),
+    /**
+     * An X-Wing over three rows and three columns.
+     */
+    SWORDFISH(38),
+    /**
+     * See {@link Rule#HIDDEN_TRIPLE}.
+     */
+    HIDDEN_TRIPLE(40),
+    /**
+     * The squares linked by units where a value has exactly two possible
+     * squares are colored in turn. A color with two squares in one unit is
+     * false, and a square that sees both colors cannot hold the value.
+     */
+    SIMPLE_COLORING(45),
+    /**
+     * A chain of squares with two candidates each, every one seeing the
+     * next, where either end must hold a value. A square that sees both ends
+     * cannot hold it. The XY-Wing is the shortest such chain.
+     */
+    XY_CHAIN(50),
+    /**
+     * None of the other techniques makes progress, so the puzzle needs trial
+     * and error. The rating stops there.
+     */
+    TRIAL(100);
+
+    private final int weight;
+
+    Technique(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Returns the difficulty of one use of the technique, in tenths.
+     *
+     * @return The difficulty of one use of the technique.
+     */
+    public int getWeight() {
+        return weight;
+    }
+}
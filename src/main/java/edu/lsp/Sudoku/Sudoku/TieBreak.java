@@ -0,0 +1,21 @@
+package edu.lsp.Sudoku.Sudoku;
+
+/**
+ * The ways to choose between several unmarked squares that have the same,
+ * minimum number of candidates when the search has to branch.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public enum TieBreak {
+    /**
+     * Any of the squares is taken, whichever is found first. This costs
+     * nothing beyond finding the minimum number of candidates.
+     */
+    FIRST,
+    /**
+     * The square with the most unmarked peers is taken, since marking it
+     * removes a candidate from the most other squares.
+     */
+    DEGREE
+}
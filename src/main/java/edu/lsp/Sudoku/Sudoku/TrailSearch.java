@@ -0,0 +1,333 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Performs the same DFS as {@link PropagationSearch}, but on a single mutable
+ * {@link SearchState}. Instead of creating a new Board for every branch, the
+ * changes are undone from the trail when backtracking, so no garbage is
+ * produced per node apart from the solutions themselves. When the solutions
+ * are only counted, no garbage is produced at all.
+ * <p>
+ * An instance can be reused for any number of searches, but it must not be
+ * shared between threads.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+public class TrailSearch {
+
+	/**
+	 * The state that is manipulated in place during search. It is replaced
+	 * when a Board of another grid is searched.
+	 */
+	private SearchState state;
+
+	/**
+	 * The rules applied during propagation.
+	 */
+	private final Set<Rule> rules;
+
+	/**
+	 * How to choose among the squares with the fewest candidates.
+	 */
+	private final TieBreak tieBreak;
+
+	/**
+	 * The list the solutions are added to, or <code>null</code> when the
+	 * solutions are only counted.
+	 */
+	private List<Board> solutions;
+
+	/**
+	 * The number of solutions found so far.
+	 */
+	private long found;
+
+	/**
+	 * The number of solutions at which the search stops.
+	 */
+	private long limit;
+
+	/**
+	 * The statistics of the current search, or <code>null</code> if they are
+	 * not collected.
+	 */
+	private SolveResult result;
+
+	/**
+	 * The limits of the current search, or <code>null</code> if it has none.
+	 * Only a search that collects statistics can have limits.
+	 */
+	private Budget budget;
+
+	/**
+	 * Creates a search that only removes the values of marked squares from
+	 * their peers during propagation.
+	 */
+	public TrailSearch() {
+		this(Collections.<Rule> emptySet());
+	}
+
+	/**
+	 * Creates a search that also applies the given unit-based rules during
+	 * propagation.
+	 *
+	 * @param rules
+	 *            The rules to apply.
+	 */
+	public TrailSearch(Set<Rule> rules) {
+		this(rules, TieBreak.FIRST);
+	}
+
+	/**
+	 * Creates a search that also applies the given unit-based rules during
+	 * propagation, and breaks ties between the squares with the fewest
+	 * candidates as given.
+	 *
+	 * @param rules
+	 *            The rules to apply.
+	 * @param tieBreak
+	 *            How to choose among the squares with the fewest candidates.
+	 */
+	public TrailSearch(Set<Rule> rules, TieBreak tieBreak) {
+		this.rules = rules.isEmpty() ? EnumSet.noneOf(Rule.class) : EnumSet.copyOf(rules);
+		this.tieBreak = tieBreak;
+		state = new SearchState(Grid.STANDARD, this.rules, tieBreak);
+	}
+
+	/**
+	 * Loads the given Board into the state, first replacing the state if the
+	 * Board belongs to another grid.
+	 *
+	 * @param board
+	 *            The Board to load.
+	 * @return <code>false</code> if the Board is found to be faulty.
+	 */
+	private boolean load(Board board) {
+		if (state.grid() != board.getGrid())
+			state = new SearchState(board.getGrid(), rules, tieBreak);
+		return state.load(board);
+	}
+
+	/**
+	 * Loads the given Board like {@link #load(Board)}, and reports the
+	 * propagation as a {@link PropagationEvent} if it was slow.
+	 */
+	private boolean loadAndRecord(Board board) {
+		if (!FlightRecorderSupport.AVAILABLE)
+			return load(board);
+		PropagationEvent event = new PropagationEvent();
+		event.begin();
+		boolean loaded = load(board);
+		event.commit(state.propagations, state.eliminations, loaded);
+		return loaded;
+	}
+
+	/**
+	 * Assigns the value to the square of the state, and reports the
+	 * propagation as a {@link PropagationEvent} if it was slow.
+	 */
+	private boolean assignAndRecord(int square, int value) {
+		if (!FlightRecorderSupport.AVAILABLE)
+			return state.assign(square, value);
+		PropagationEvent event = new PropagationEvent();
+		event.begin();
+		long passes = state.propagations;
+		long eliminations = state.eliminations;
+		boolean consistent = state.assign(square, value);
+		event.commit(state.propagations - passes, state.eliminations - eliminations, consistent);
+		return consistent;
+	}
+
+	/**
+	 * Finds all the solutions of the given Board and adds them to the list.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param solutions
+	 *            The list to add the solutions to.
+	 */
+	public void search(Board board, List<Board> solutions) {
+		search(board, solutions, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Finds the solutions of the given Board and adds them to the list,
+	 * stopping as soon as the list holds the given number of solutions.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param solutions
+	 *            The list to add the solutions to.
+	 * @param limit
+	 *            The maximum number of solutions the list may hold.
+	 */
+	public void search(Board board, List<Board> solutions, int limit) {
+		if (board == null || solutions.size() >= limit || !load(board))
+			return;
+		this.solutions = solutions;
+		this.found = solutions.size();
+		this.limit = limit;
+		try {
+			search(0);
+		} finally {
+			this.solutions = null;
+		}
+	}
+
+	/**
+	 * Finds the solutions of the given Board, stopping as soon as the given
+	 * number of solutions is found, and collects the statistics of the
+	 * search. The other methods do not collect them, and are not slowed down
+	 * by them.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param limit
+	 *            The maximum number of solutions to find.
+	 * @return The solutions and the statistics of the search.
+	 */
+	public SolveResult solve(Board board, int limit) {
+		return solve(board, limit, null);
+	}
+
+	/**
+	 * Finds the solutions of the given Board like
+	 * {@link #solve(Board, int)}, and stops early once the budget is used up.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param limit
+	 *            The maximum number of solutions to find.
+	 * @param budget
+	 *            The limits of the search, or <code>null</code> for none.
+	 * @return The solutions found and the statistics of the search, with the
+	 *         reason it stopped early if it did.
+	 */
+	SolveResult solve(Board board, int limit, Budget budget) {
+		SolveResult result = new SolveResult();
+		long start = System.nanoTime();
+		if (board == null || limit <= 0)
+			return result;
+		SolveStatus status = budget == null ? null : budget.check(0);
+		if (status != null) {
+			result.status = status;
+			return result;
+		}
+		boolean loaded = loadAndRecord(board);
+		result.propagationNanos = System.nanoTime() - start;
+		if (loaded) {
+			this.solutions = result.solutions;
+			this.found = 0;
+			this.limit = limit;
+			this.result = result;
+			this.budget = budget;
+			try {
+				result.nodes = 1;
+				result.limitReached = search(0) && result.status == SolveStatus.COMPLETED;
+			} finally {
+				this.solutions = null;
+				this.result = null;
+				this.budget = null;
+			}
+		}
+		result.eliminations = state.eliminations;
+		result.propagations = state.propagations;
+		result.totalNanos = System.nanoTime() - start;
+		return result;
+	}
+
+	/**
+	 * Counts the solutions of the given Board without creating them.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @return The number of solutions.
+	 */
+	public long count(Board board) {
+		return count(board, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Counts the solutions of the given Board without creating them, stopping
+	 * as soon as the given number of solutions is reached.
+	 *
+	 * @param board
+	 *            The Board to solve.
+	 * @param limit
+	 *            The number of solutions at which to stop counting.
+	 * @return The number of solutions, at most <code>limit</code>.
+	 */
+	public long count(Board board, long limit) {
+		if (board == null || limit <= 0 || !load(board))
+			return 0;
+		this.found = 0;
+		this.limit = limit;
+		search(0);
+		return found;
+	}
+
+	/**
+	 * Performs a DFS of the possible states starting from the current one.
+	 *
+	 * @param depth
+	 *            The number of assignments made on the way to this state.
+	 * @return <code>true</code> if the limit has been reached or the budget
+	 *         used up.
+	 */
+	private boolean search(int depth) {
+		// Proceeding with the square with minimum candidates helps to reduce
+		// the chance of failure.
+		int square = state.minimumCandidateSquare();
+
+		// Solution obtained
+		if (square == -1) {
+			if (solutions != null)
+				solutions.add(state.toBoard());
+			return ++found >= limit;
+		}
+
+		// Try out every possibility, undoing its effects afterwards.
+		int mark = state.mark();
+		if (result != null)
+			return searchCounting(square, mark, depth);
+		for (int bits = state.candidates(square); bits != 0; bits &= bits - 1) {
+			boolean stop = state.assign(square, bits & -bits) && search(depth + 1);
+			state.undo(mark);
+			if (stop)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Tries out every possibility of the square like {@link #search(int)},
+	 * and records the nodes, the backtracks, the depth and the time spent in
+	 * propagation. Stops the whole search once the budget is used up.
+	 */
+	private boolean searchCounting(int square, int mark, int depth) {
+		SolveResult result = this.result;
+		for (int bits = state.candidates(square); bits != 0; bits &= bits - 1) {
+			SolveStatus status = budget == null ? null : budget.check(result.nodes);
+			if (status != null) {
+				result.status = status;
+				return true;
+			}
+			result.nodes++;
+			result.maxDepth = Math.max(result.maxDepth, depth + 1);
+			long start = System.nanoTime();
+			boolean consistent = assignAndRecord(square, bits & -bits);
+			result.propagationNanos += System.nanoTime() - start;
+			boolean stop = consistent && search(depth + 1);
+			state.undo(mark);
+			if (stop)
+				return true;
+			result.backtracks++;
+		}
+		return false;
+	}
+}
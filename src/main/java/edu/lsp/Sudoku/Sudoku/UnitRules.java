@@ -0,0 +1,257 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.Set;
+
+/**
+ * Applies the enabled {@link Rule}s to every unit of an array of candidate
+ * masks. Every change goes through {@link #restrict(int, int)}, which
+ * subclasses override to record or queue the change.
+ * <p>
+ * The scratch arrays are allocated once, so an instance should be reused. It
+ * is not thread-safe.
+ *
+ * @author Subhomoy Haldar
+ * @version 1.0
+ */
+class UnitRules {
+
+	private final boolean hiddenSingle;
+	private final boolean nakedPair;
+	private final boolean hiddenPair;
+	private final boolean nakedTriple;
+	private final boolean hiddenTriple;
+
+	/**
+	 * The geometry of the masks.
+	 */
+	final Grid grid;
+
+	/**
+	 * The positions (bit i for the ith square of the unit) of every value in
+	 * the current unit.
+	 */
+	private final int[] positions;
+
+	/**
+	 * The masks being worked on.
+	 */
+	protected int[] masks;
+
+	/**
+	 * The number of changes made by the current call to {@link #apply(int[])}.
+	 */
+	private int changes;
+
+	/**
+	 * Creates an instance that applies the given rules to masks of the given
+	 * grid.
+	 *
+	 * @param grid
+	 *            The geometry of the masks.
+	 * @param rules
+	 *            The rules to apply.
+	 */
+	UnitRules(Grid grid, Set<Rule> rules) {
+		this.grid = grid;
+		positions = new int[grid.size];
+		hiddenSingle = rules.contains(Rule.HIDDEN_SINGLE);
+		nakedPair = rules.contains(Rule.NAKED_PAIR);
+		hiddenPair = rules.contains(Rule.HIDDEN_PAIR);
+		nakedTriple = rules.contains(Rule.NAKED_TRIPLE);
+		hiddenTriple = rules.contains(Rule.HIDDEN_TRIPLE);
+	}
+
+	/**
+	 * Returns <code>true</code> if no rule is enabled.
+	 *
+	 * @return <code>true</code> if no rule is enabled.
+	 */
+	boolean isEmpty() {
+		return !(hiddenSingle || nakedPair || hiddenPair || nakedTriple || hiddenTriple);
+	}
+
+	/**
+	 * Applies the rules once to every unit.
+	 *
+	 * @param masks
+	 *            The masks to work on.
+	 * @return The number of changes made, or -1 if a contradiction is found.
+	 */
+	int apply(int[] masks) {
+		this.masks = masks;
+		changes = 0;
+		for (int[] unit : grid.unitIndices) {
+			if (hiddenSingle && !hiddenSingles(unit))
+				return -1;
+			if (nakedPair && !nakedSubsets(unit, 2))
+				return -1;
+			if (nakedTriple && !nakedSubsets(unit, 3))
+				return -1;
+			if ((hiddenPair || hiddenTriple) && !hiddenSubsets(unit))
+				return -1;
+		}
+		return changes;
+	}
+
+	/**
+	 * Changes the mask of a square. The new mask is never empty and always a
+	 * subset of the old one.
+	 *
+	 * @param square
+	 *            The index of the square.
+	 * @param mask
+	 *            The new mask.
+	 * @return <code>false</code> if a contradiction is found.
+	 */
+	protected boolean restrict(int square, int mask) {
+		masks[square] = mask;
+		return true;
+	}
+
+	/**
+	 * Restricts a square to the given candidates, if that changes anything.
+	 */
+	private boolean update(int square, int mask) {
+		int old = masks[square];
+		int next = old & mask;
+		if (next == old)
+			return true;
+		if (next == 0)
+			return false;
+		changes++;
+		return restrict(square, next);
+	}
+
+	/**
+	 * Assigns every value that has a single possible square in the unit, and
+	 * fails if a value has no possible square at all.
+	 */
+	private boolean hiddenSingles(int[] unit) {
+		int once = 0;
+		int twice = 0;
+		for (int square : unit) {
+			int mask = masks[square];
+			twice |= once & mask;
+			once |= mask;
+		}
+		if (once != grid.allCandidates)
+			return false;
+		for (int bits = once & ~twice; bits != 0; bits &= bits - 1) {
+			int value = bits & -bits;
+			int found = -1;
+			// The masks may have changed since the counting above
+			for (int square : unit) {
+				if ((masks[square] & value) != 0) {
+					found = square;
+					break;
+				}
+			}
+			if (found == -1 || !update(found, value))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Finds groups of the given size of unmarked squares whose candidates
+	 * together are exactly that many, and removes those candidates from the
+	 * other squares of the unit.
+	 */
+	private boolean nakedSubsets(int[] unit, int size) {
+		int length = unit.length;
+		for (int i = 0; i < length; i++) {
+			int a = masks[unit[i]];
+			int countA = Integer.bitCount(a);
+			if (countA < 2 || countA > size)
+				continue;
+			for (int j = i + 1; j < length; j++) {
+				int b = a | masks[unit[j]];
+				int countB = Integer.bitCount(masks[unit[j]]);
+				if (countB < 2 || Integer.bitCount(b) > size)
+					continue;
+				if (size == 2) {
+					if (!removeExcept(unit, b, i, j, j))
+						return false;
+					continue;
+				}
+				for (int k = j + 1; k < length; k++) {
+					int countC = Integer.bitCount(masks[unit[k]]);
+					int c = b | masks[unit[k]];
+					if (countC < 2 || Integer.bitCount(c) != size)
+						continue;
+					if (!removeExcept(unit, c, i, j, k))
+						return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the given candidates from every square of the unit except the
+	 * squares at the given positions.
+	 */
+	private boolean removeExcept(int[] unit, int candidates, int i, int j, int k) {
+		for (int l = 0; l < unit.length; l++) {
+			if (l != i && l != j && l != k && !update(unit[l], ~candidates))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Finds pairs (and triples) of values that are only possible in two (or
+	 * three) squares of the unit, and removes the other candidates from those
+	 * squares.
+	 */
+	private boolean hiddenSubsets(int[] unit) {
+		int size = grid.size;
+		for (int value = 0; value < size; value++) {
+			positions[value] = 0;
+		}
+		for (int i = 0; i < unit.length; i++) {
+			for (int bits = masks[unit[i]]; bits != 0; bits &= bits - 1) {
+				positions[Integer.numberOfTrailingZeros(bits)] |= 1 << i;
+			}
+		}
+		for (int a = 0; a < size; a++) {
+			int countA = Integer.bitCount(positions[a]);
+			if (countA < 2 || countA > 3)
+				continue;
+			for (int b = a + 1; b < size; b++) {
+				int countB = Integer.bitCount(positions[b]);
+				int ab = positions[a] | positions[b];
+				if (countB < 2 || Integer.bitCount(ab) > 3)
+					continue;
+				if (hiddenPair && Integer.bitCount(ab) == 2) {
+					if (!keepOnly(unit, ab, (1 << a) | (1 << b)))
+						return false;
+					continue;
+				}
+				if (!hiddenTriple)
+					continue;
+				for (int c = b + 1; c < size; c++) {
+					int countC = Integer.bitCount(positions[c]);
+					int abc = ab | positions[c];
+					if (countC < 2 || Integer.bitCount(abc) != 3)
+						continue;
+					if (!keepOnly(unit, abc, (1 << a) | (1 << b) | (1 << c)))
+						return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes every candidate but the given ones from the squares at the
+	 * given positions of the unit.
+	 */
+	private boolean keepOnly(int[] unit, int squares, int candidates) {
+		for (int bits = squares; bits != 0; bits &= bits - 1) {
+			if (!update(unit[Integer.numberOfTrailingZeros(bits)], candidates))
+				return false;
+		}
+		return true;
+	}
+}
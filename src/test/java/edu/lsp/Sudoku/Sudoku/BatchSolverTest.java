@@ -0,0 +1,54 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.BoardTest.EASY;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.EASY_SOLUTION;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD_SOLUTION;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the streaming batch solver.
+ */
+public class BatchSolverTest extends TestCase {
+
+	public BatchSolverTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(BatchSolverTest.class);
+	}
+
+	public void testOneLinePerPuzzleInOrder() throws IOException {
+		String input = "# comment\n" + HARD + "\n\n" + EASY.replace('.', '0') + "\n" + "88" + HARD.substring(2)
+				+ "\n" + "123\n" + HARD_SOLUTION.substring(0, 20) + "\n";
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BatchSolver solver = new BatchSolver();
+		solver.solve(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), out);
+		String expected = HARD_SOLUTION + "\n" + EASY_SOLUTION + "\n" + BatchSolver.NO_SOLUTION + "\n"
+				+ BatchSolver.INVALID + "\n" + BatchSolver.INVALID + "\n";
+		assertEquals(expected, new String(out.toByteArray(), StandardCharsets.US_ASCII));
+		assertEquals(5, solver.getLatencies().getCount());
+	}
+
+	public void testHistogramPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1000000, histogram.getMaximum());
+		long median = histogram.getPercentile(50);
+		assertTrue(median >= 500000 && median < 500000 * 17 / 16);
+		assertTrue(histogram.getPercentile(99) <= histogram.getPercentile(99.9));
+		assertEquals(1000000, histogram.getPercentile(100));
+	}
+}
@@ -0,0 +1,99 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the bit mask based Board.
+ */
+public class BoardTest extends TestCase {
+
+	/**
+	 * A puzzle that is solved by constraint propagation alone.
+	 */
+	static final String EASY = "..3.2.6..9..3.5..1..18.64....81.29..7.......8..67.82....26.95..8..2.3..9..5.1.3..";
+
+	/**
+	 * The solution of {@link #EASY}.
+	 */
+	static final String EASY_SOLUTION = "483921657967345821251876493548132976729564138136798245372689514814253769695417382";
+
+	/**
+	 * A puzzle that requires a deep search.
+	 */
+	static final String HARD = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+
+	/**
+	 * The solution of {@link #HARD}.
+	 */
+	static final String HARD_SOLUTION = "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+
+	public BoardTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(BoardTest.class);
+	}
+
+	/**
+	 * Propagating a plain singles puzzle until nothing changes solves it.
+	 */
+	public void testPropagateSolvesEasyPuzzle() {
+		Board board = Parser.parse(EASY);
+		assertFalse(board.isSolved());
+		Board next;
+		while ((next = board.propagate()) != board) {
+			assertNotNull(next);
+			board = next;
+		}
+		assertTrue(board.isSolved());
+		assertFalse(board.isWrong());
+		assertEquals(Parser.parse(EASY_SOLUTION).toString(), board.toString());
+	}
+
+	public void testIsWrongDetectsRepetition() {
+		assertFalse(Parser.parse(HARD).isWrong());
+		assertTrue(Parser.parse("88" + HARD.substring(2)).isWrong());
+	}
+
+	public void testPropagateReturnsNullForRepetition() {
+		assertNull(Parser.parse("88" + HARD.substring(2)).propagate());
+		assertNotNull(Parser.parse(HARD).propagate());
+	}
+
+	public void testPropagateReturnsNullForEmptySquare() {
+		Map<String, String> map = new LinkedHashMap<>();
+		for (String square : Constants.SQUARES) {
+			map.put(square, Constants.CANDIDATES);
+		}
+		map.put("E5", "");
+		assertNull(new Board(map).propagate());
+	}
+
+	public void testMinimumCandidatePair() {
+		Map<String, String> map = new LinkedHashMap<>();
+		for (String square : Constants.SQUARES) {
+			map.put(square, Constants.CANDIDATES);
+		}
+		map.put("C7", "358");
+		map.put("F2", "46");
+		map.put("H9", "17");
+		Map.Entry<String, String> pair = new Board(map).minimumCandidatePair();
+		assertEquals("F2", pair.getKey());
+		assertEquals("46", pair.getValue());
+		assertNull(Parser.parse(EASY_SOLUTION).minimumCandidatePair());
+	}
+
+	public void testStringConstructorsMatchMasks() {
+		Board board = Parser.parse(HARD);
+		Board next = new Board(board, "A2", "1");
+		assertEquals(1, next.candidates(1));
+		assertEquals(Constants.ALL_CANDIDATES, board.candidates(1));
+		assertEquals("1357", Constants.toCandidates(Constants.toMask("7531")));
+	}
+}
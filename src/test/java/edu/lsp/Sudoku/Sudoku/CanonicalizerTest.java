@@ -0,0 +1,141 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.BoardTest.EASY;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD_SOLUTION;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the canonical form, the fingerprint set and the
+ * deduplication of puzzles.
+ */
+public class CanonicalizerTest extends TestCase {
+
+	public CanonicalizerTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(CanonicalizerTest.class);
+	}
+
+	public void testEquivalentPuzzlesShareTheForm() {
+		Canonicalizer canonicalizer = new Canonicalizer();
+		SplittableRandom random = new SplittableRandom(1);
+		for (String puzzle : new String[] { HARD, EASY, HARD_SOLUTION }) {
+			int[] values = values(puzzle);
+			int[] expected = new int[values.length];
+			canonicalizer.canonicalize(values, expected);
+			for (int i = 0; i < 20; i++) {
+				int[] transformed = values.clone();
+				Generator.transform(transformed, random);
+				int[] canonical = new int[values.length];
+				canonicalizer.canonicalize(transformed, canonical);
+				assertTrue(Arrays.equals(expected, canonical));
+			}
+			// The canonical form is its own canonical form
+			int[] again = new int[values.length];
+			canonicalizer.canonicalize(expected, again);
+			assertTrue(Arrays.equals(expected, again));
+		}
+	}
+
+	public void testCanonicalFormIsMinimal() {
+		int[] canonical = new int[Constants.NUMBER_OF_SQUARES];
+		new Canonicalizer().canonicalize(values(HARD), canonical);
+		// A first row with a single value puts it last, and labels it 1
+		assertEquals(1, canonical[8]);
+		for (int square = 0; square < 8; square++) {
+			assertEquals(0, canonical[square]);
+		}
+		new Canonicalizer().canonicalize(values(HARD_SOLUTION), canonical);
+		for (int square = 0; square < 9; square++) {
+			assertEquals(square + 1, canonical[square]);
+		}
+	}
+
+	public void testSolutionMapsBack() {
+		Canonicalizer canonicalizer = new Canonicalizer();
+		int[] values = values(HARD);
+		int[] canonical = new int[values.length];
+		GridTransform transform = canonicalizer.canonicalize(values, canonical);
+		List<Board> solutions = new ArrayList<>(1);
+		new TrailSearch().search(Parser.parse(toLine(canonical)), solutions, 1);
+		int[] original = new int[values.length];
+		transform.revert(values(solutions.get(0).toLine()), original);
+		assertEquals(HARD_SOLUTION, toLine(original));
+	}
+
+	public void testDifferentPuzzlesDiffer() {
+		Canonicalizer canonicalizer = new Canonicalizer();
+		assertFalse(canonicalizer.fingerprint(Parser.parse(HARD)) == canonicalizer.fingerprint(Parser.parse(EASY)));
+		assertEquals(canonicalizer.fingerprint(Parser.parse(HARD)),
+				canonicalizer.fingerprint(Parser.parse(new StringBuilder(HARD).reverse().toString())));
+	}
+
+	public void testFingerprintSetGrows() {
+		FingerprintSet set = new FingerprintSet(10);
+		long memory = set.getMemory();
+		for (long i = 0; i < 5000; i++) {
+			assertTrue(set.add(i * 7919));
+		}
+		for (long i = 0; i < 5000; i++) {
+			assertFalse(set.add(i * 7919));
+			assertTrue(set.contains(i * 7919));
+		}
+		assertFalse(set.contains(1));
+		assertEquals(5000, set.size());
+		assertTrue(set.getMemory() > memory);
+	}
+
+	public void testDeduplication() throws IOException {
+		SplittableRandom random = new SplittableRandom(2);
+		StringBuilder input = new StringBuilder("# comment\n \t\n");
+		for (String puzzle : new String[] { HARD, EASY }) {
+			input.append(puzzle).append('\n');
+			for (int i = 0; i < 3; i++) {
+				int[] values = values(puzzle);
+				Generator.transform(values, random);
+				input.append(toLine(values)).append('\n');
+			}
+		}
+		input.append("123\n");
+		Deduplicator deduplicator = new Deduplicator(16);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		deduplicator.deduplicate(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.US_ASCII)),
+				out);
+		assertEquals(HARD + "\n" + EASY + "\n", new String(out.toByteArray(), StandardCharsets.US_ASCII));
+		assertEquals(2, deduplicator.getDistinct());
+		assertEquals(9, deduplicator.getPuzzles());
+		assertFalse(deduplicator.add(Parser.parse(HARD)));
+	}
+
+	private static int[] values(String puzzle) {
+		int[] values = new int[puzzle.length()];
+		for (int square = 0; square < values.length; square++) {
+			char c = puzzle.charAt(square);
+			values[square] = c == '.' ? 0 : c - '0';
+		}
+		return values;
+	}
+
+	private static String toLine(int[] values) {
+		char[] line = new char[values.length];
+		for (int square = 0; square < line.length; square++) {
+			line[square] = values[square] == 0 ? '.' : (char) ('0' + values[square]);
+		}
+		return new String(line);
+	}
+}
@@ -0,0 +1,93 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD_SOLUTION;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Cross-checks the search engines against each other.
+ */
+public class EngineTest extends TestCase {
+
+	/**
+	 * Puzzles with zero, one and several solutions.
+	 */
+	static final String[] PUZZLES = {
+			HARD,
+			"88" + HARD.substring(2),
+			"..................." + HARD_SOLUTION.substring(19),
+			"..............................." + HARD_SOLUTION.substring(31),
+	};
+
+	public EngineTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(EngineTest.class);
+	}
+
+	public void testEnginesAgree() {
+		for (String puzzle : PUZZLES) {
+			List<String> expected = solve(puzzle, Engine.PROPAGATION);
+			for (Engine engine : Engine.values()) {
+				assertEquals(engine + " on " + puzzle, expected, solve(puzzle, engine));
+			}
+		}
+	}
+
+	/**
+	 * An empty grid has billions of solutions, so this only finishes if the
+	 * engines stop at the limit.
+	 */
+	public void testLimitStopsEarly() {
+		String empty = new String(new char[Constants.NUMBER_OF_SQUARES]).replace('\0', '.');
+		for (Engine engine : Engine.values()) {
+			for (int limit = 1; limit <= 3; limit++) {
+				List<Board> solutions = new ArrayList<>();
+				Main.search(Parser.parse(empty), solutions, engine, limit);
+				assertEquals(engine.toString(), limit, solutions.size());
+				assertTrue(solutions.get(limit - 1).isSolved());
+			}
+		}
+	}
+
+	public void testCountMatchesSearch() {
+		for (String puzzle : PUZZLES) {
+			long expected = solve(puzzle, Engine.PROPAGATION).size();
+			for (Engine engine : Engine.values()) {
+				assertEquals(engine + " on " + puzzle, expected,
+						Main.count(Parser.parse(puzzle), engine, Long.MAX_VALUE));
+				assertEquals(Math.min(expected, 5), Main.count(Parser.parse(puzzle), engine, 5));
+			}
+		}
+	}
+
+	public void testIsUnique() {
+		assertTrue(Main.isUnique(Parser.parse(HARD)));
+		assertFalse(Main.isUnique(Parser.parse(PUZZLES[1])));
+		assertFalse(Main.isUnique(Parser.parse(PUZZLES[2])));
+		assertFalse(Main.isUnique(Parser.parse(new String(new char[Constants.NUMBER_OF_SQUARES]).replace('\0', '0'))));
+	}
+
+	/**
+	 * Returns the sorted String forms of the solutions found by the engine.
+	 */
+	static List<String> solve(String puzzle, Engine engine) {
+		List<Board> solutions = new ArrayList<>();
+		Main.search(Parser.parse(puzzle), solutions, engine);
+		List<String> strings = new ArrayList<>();
+		for (Board solution : solutions) {
+			strings.add(solution.toString());
+		}
+		Collections.sort(strings);
+		return strings;
+	}
+}
@@ -0,0 +1,95 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the Java Flight Recorder events.
+ */
+public class FlightRecorderTest extends TestCase {
+
+	public FlightRecorderTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(FlightRecorderTest.class);
+	}
+
+	public void testSolveEvent() throws Exception {
+		List<RecordedEvent> events = record(SolveEvent.NAME, () -> {
+			Solver.builder().limit(2).build().solve(Parser.parse(HARD));
+		});
+		assertEquals(1, events.size());
+		RecordedEvent event = events.get(0);
+		assertEquals("TRAIL", event.getString("engine"));
+		assertEquals(HARD.replace(".", "").length(), event.getInt("clues"));
+		assertTrue(event.getLong("nodes") > 1);
+		assertEquals(1, event.getInt("solutions"));
+		assertEquals("solved", event.getString("result"));
+	}
+
+	/**
+	 * With a zero threshold every propagation is slow, and the contradiction
+	 * of the faulty puzzle is found by the first one.
+	 */
+	public void testPropagationEvent() throws Exception {
+		for (Engine engine : new Engine[] { Engine.TRAIL, Engine.PROPAGATION }) {
+			Solver solver = Solver.builder().engine(engine).build();
+			List<RecordedEvent> events = record(PropagationEvent.NAME, () -> {
+				solver.solve(Parser.parse("88" + HARD.substring(2)));
+			});
+			assertEquals(engine.toString(), 1, events.size());
+			assertFalse(events.get(0).getBoolean("consistent"));
+			assertTrue(events.get(0).getLong("passes") > 0);
+		}
+	}
+
+	public void testGeneratorBatchEvent() throws Exception {
+		List<RecordedEvent> events = record(GeneratorBatchEvent.NAME, () -> {
+			new PuzzleGenerator().generate(3, new SplittableRandom(1));
+		});
+		assertEquals(1, events.size());
+		assertEquals(3, events.get(0).getInt("puzzles"));
+		assertEquals(9, events.get(0).getInt("size"));
+		assertEquals("NONE", events.get(0).getString("symmetry"));
+		assertTrue(events.get(0).getLong("clues") >= 3 * 17);
+	}
+
+	/**
+	 * Runs the task while recording only the given event, without a
+	 * threshold, and returns the events recorded on this thread.
+	 */
+	private static List<RecordedEvent> record(String name, Runnable task) throws Exception {
+		File file = File.createTempFile("sudoku", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(name).withThreshold(Duration.ZERO).withoutStackTrace();
+			recording.start();
+			task.run();
+			recording.stop();
+			recording.dump(file.toPath());
+			List<RecordedEvent> events = new ArrayList<>();
+			String thread = Thread.currentThread().getName();
+			for (RecordedEvent event : RecordingFile.readAllEvents(file.toPath())) {
+				if (name.equals(event.getEventType().getName())
+						&& (event.getThread() == null || thread.equals(event.getThread().getJavaName())))
+					events.add(event);
+			}
+			return events;
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the generation and transformation of solved grids.
+ */
+public class GeneratorTest extends TestCase {
+
+	public GeneratorTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(GeneratorTest.class);
+	}
+
+	public void testGeneratedGridsAreSolved() {
+		SplittableRandom random = new SplittableRandom(1);
+		for (int unit = 2; unit <= 5; unit++) {
+			Grid grid = Grid.of(unit);
+			int[] values = new int[grid.numberOfSquares];
+			for (int i = 0; i < 20; i++) {
+				Generator.generateSolved(values, random);
+				Board board = toBoard(values);
+				assertTrue(board.isSolved());
+				assertFalse(board.isWrong());
+			}
+		}
+	}
+
+	public void testSameSeedSameGrid() {
+		int[] first = new int[Constants.NUMBER_OF_SQUARES];
+		int[] second = new int[Constants.NUMBER_OF_SQUARES];
+		Generator.generateSolved(first, new SplittableRandom(42));
+		Generator.generateSolved(second, new SplittableRandom(42));
+		assertTrue(Arrays.equals(first, second));
+	}
+
+	/**
+	 * The first row of the pattern ends up as any arrangement of the values,
+	 * and the value of a square as any value.
+	 */
+	public void testTransformsReachManyGrids() {
+		SplittableRandom random = new SplittableRandom(7);
+		int[] values = new int[Constants.NUMBER_OF_SQUARES];
+		Set<String> firstRows = new HashSet<>();
+		Set<Integer> corners = new HashSet<>();
+		for (int i = 0; i < 200; i++) {
+			Generator.generateSolved(values, random);
+			firstRows.add(Arrays.toString(Arrays.copyOf(values, 9)));
+			corners.add(values[80]);
+		}
+		assertTrue(firstRows.size() > 190);
+		assertEquals(9, corners.size());
+	}
+
+	public void testTransformKeepsPuzzles() {
+		Board puzzle = Parser.parse(BoardTest.HARD);
+		int[] values = new int[Constants.NUMBER_OF_SQUARES];
+		for (int square = 0; square < values.length; square++) {
+			int mask = puzzle.candidates(square);
+			values[square] = mask == Constants.ALL_CANDIDATES ? 0 : Integer.numberOfTrailingZeros(mask) + 1;
+		}
+		int clues = puzzle.toLine().replace(".", "").length();
+		Generator.transform(values, new SplittableRandom(3));
+		int[] masks = new int[values.length];
+		int filled = 0;
+		for (int square = 0; square < values.length; square++) {
+			masks[square] = values[square] == 0 ? Constants.ALL_CANDIDATES : 1 << (values[square] - 1);
+			if (values[square] != 0)
+				filled++;
+		}
+		assertEquals(clues, filled);
+		assertEquals(1, new TrailSearch().count(new Board(masks), 2));
+	}
+
+	private static Board toBoard(int[] values) {
+		int[] masks = new int[values.length];
+		for (int square = 0; square < values.length; square++) {
+			masks[square] = 1 << (values[square] - 1);
+		}
+		return new Board(masks);
+	}
+}
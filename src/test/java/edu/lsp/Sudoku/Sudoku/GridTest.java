@@ -0,0 +1,86 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the grids other than the standard 9x9 one.
+ */
+public class GridTest extends TestCase {
+
+	public GridTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(GridTest.class);
+	}
+
+	public void testTablesMatchConstants() {
+		Grid grid = Grid.STANDARD;
+		assertSame(grid, Grid.of(Constants.UNIT));
+		assertEquals(Constants.CANDIDATES, grid.getCandidates());
+		assertEquals(Constants.SQUARES, grid.getSquares());
+		assertEquals(Constants.ALL_CANDIDATES, grid.allCandidates);
+	}
+
+	public void testTableSizes() {
+		for (int unit = 2; unit <= Grid.MAX_UNIT; unit++) {
+			Grid grid = Grid.of(unit);
+			int size = unit * unit;
+			assertSame(grid, Grid.ofSize(size));
+			assertEquals(size * size, grid.getNumberOfSquares());
+			assertEquals(3 * size, grid.unitIndices.length);
+			assertEquals(3 * size - 2 * unit - 1, grid.peerIndices[size * size - 1].length);
+			assertEquals("A1", grid.getSquares().get(0));
+			assertEquals("" + (char) ('A' + size - 1) + size, grid.getSquares().get(size * size - 1));
+		}
+	}
+
+	public void testParsesLetters() {
+		Grid grid = Grid.of(4);
+		StringBuilder line = new StringBuilder("123456789abcdefG");
+		for (int i = 16; i < grid.getNumberOfSquares(); i++) {
+			line.append('.');
+		}
+		Board board = Parser.parse(line.toString(), grid);
+		assertSame(grid, board.getGrid());
+		assertEquals(line.toString().toUpperCase(), board.toLine());
+		assertEquals(1 << 15, board.candidates(15));
+	}
+
+	/**
+	 * Puzzles made by removing a third of the values of a generated grid must
+	 * be solved by every engine, consistently with the remaining values.
+	 */
+	public void testEnginesSolveOtherSizes() {
+		Random random = new Random(42);
+		for (int unit : new int[] { 2, 4, 5 }) {
+			Grid grid = Grid.of(unit);
+			char[] line = Parser.parse(Generator.generateSolved(grid)).toLine().toCharArray();
+			for (int i = 0; i < line.length; i++) {
+				if (random.nextInt(3) == 0)
+					line[i] = '.';
+			}
+			String puzzle = new String(line);
+			for (Engine engine : Engine.values()) {
+				List<Board> solutions = new ArrayList<>();
+				Main.search(Parser.parse(puzzle, grid), solutions, engine, 1);
+				assertEquals(engine + " on " + grid, 1, solutions.size());
+				Board solution = solutions.get(0);
+				assertTrue(solution.isSolved());
+				assertFalse(solution.isWrong());
+				String solved = solution.toLine();
+				for (int i = 0; i < line.length; i++) {
+					if (line[i] != '.')
+						assertEquals(line[i], solved.charAt(i));
+				}
+			}
+		}
+	}
+}
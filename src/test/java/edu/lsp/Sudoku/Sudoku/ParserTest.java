@@ -0,0 +1,87 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD;
+
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the allocation-free parse methods.
+ */
+public class ParserTest extends TestCase {
+
+	public ParserTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(ParserTest.class);
+	}
+
+	/**
+	 * Every entry point must give the same Board, and the returned index
+	 * must point just past the last square, so that the next puzzle can be
+	 * parsed from there.
+	 */
+	public void testEntryPointsAgree() {
+		String expected = Parser.parse(HARD).toString();
+		String input = "# " + HARD + "\n" + HARD.replace('.', '0') + "\n";
+		byte[] bytes = input.getBytes(StandardCharsets.US_ASCII);
+		int[] masks = new int[Constants.NUMBER_OF_SQUARES];
+
+		int end = Parser.parse(input, 2, input.length() - 2, masks);
+		assertEquals(2 + HARD.length(), end);
+		assertEquals(expected, Board.of(masks).toString());
+		assertEquals(input.length() - 1, Parser.parse(new StringBuilder(input), end, input.length() - end, masks));
+		assertEquals(expected, Board.of(masks).toString());
+
+		end = Parser.parse(bytes, 2, bytes.length - 2, masks);
+		assertEquals(2 + HARD.length(), end);
+		assertEquals(expected, Board.of(masks).toString());
+		assertEquals(bytes.length - 1, Parser.parse(bytes, end, bytes.length - end, masks));
+		assertEquals(expected, Board.of(masks).toString());
+	}
+
+	public void testLargerGrid() {
+		Grid grid = Grid.of(4);
+		String puzzle = Parser.parse(Generator.generateSolved(grid)).toLine();
+		int[] masks = new int[grid.numberOfSquares];
+		assertEquals(puzzle.length(), Parser.parse(puzzle.toLowerCase(), 0, puzzle.length(), masks));
+		assertEquals(Parser.parse(puzzle, grid).toString(), Board.of(masks).toString());
+	}
+
+	public void testErrorCodes() {
+		int[] masks = new int[Constants.NUMBER_OF_SQUARES];
+		assertEquals(Parser.TOO_SHORT, Parser.parse(HARD, 0, HARD.length() - 1, masks));
+		assertEquals(Parser.TOO_SHORT, Parser.parse(new byte[] { '1', '2', (byte) 0xB9 }, 0, 3, masks));
+		try {
+			Parser.parse(HARD, 1, HARD.length(), masks);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+		try {
+			Parser.parse("12");
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		masks[0] = 1 << 9;
+		try {
+			Board.of(masks);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		masks[0] = 0;
+		try {
+			Board.of(masks);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
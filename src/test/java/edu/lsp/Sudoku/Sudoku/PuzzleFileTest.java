@@ -0,0 +1,106 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.BoardTest.EASY;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD_SOLUTION;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the memory-mapped puzzle reader and the buffered writer.
+ */
+public class PuzzleFileTest extends TestCase {
+
+	private Path input;
+	private Path output;
+
+	public PuzzleFileTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(PuzzleFileTest.class);
+	}
+
+	@Override
+	protected void setUp() throws IOException {
+		input = Files.createTempFile("puzzles", ".txt");
+		output = Files.createTempFile("solutions", ".txt");
+	}
+
+	@Override
+	protected void tearDown() throws IOException {
+		Files.deleteIfExists(input);
+		Files.deleteIfExists(output);
+	}
+
+	/**
+	 * A window of 200 bytes forces lines to cross the window boundaries.
+	 */
+	public void testReadsAcrossWindows() throws IOException {
+		StringBuilder text = new StringBuilder("# header\r\n");
+		for (int i = 0; i < 10; i++) {
+			text.append(i % 2 == 0 ? HARD : EASY).append("\r\n\n");
+		}
+		text.append("12345\n").append(HARD.replace('.', '0'));
+		Files.write(input, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+		int[] masks = new int[Constants.NUMBER_OF_SQUARES];
+		try (PuzzleFileReader reader = new PuzzleFileReader(input, 200)) {
+			for (int i = 0; i < 10; i++) {
+				assertEquals(PuzzleFileReader.PUZZLE, reader.next(masks));
+				assertEquals(i % 2 == 0 ? HARD : EASY, new Board(masks.clone()).toLine());
+			}
+			assertEquals(PuzzleFileReader.INVALID, reader.next(masks));
+			assertEquals(PuzzleFileReader.PUZZLE, reader.next(masks));
+			assertEquals(HARD, new Board(masks.clone()).toLine());
+			assertEquals(PuzzleFileReader.END_OF_FILE, reader.next(masks));
+			assertEquals(PuzzleFileReader.END_OF_FILE, reader.next(masks));
+		}
+	}
+
+	public void testWriterFlushesWhenFull() throws IOException {
+		try (PuzzleFileWriter writer = new PuzzleFileWriter(output, 100)) {
+			for (int i = 0; i < 5; i++) {
+				writer.write(Parser.parse(HARD_SOLUTION));
+				writer.write(BatchSolver.NO_SOLUTION);
+			}
+		}
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 5; i++) {
+			expected.append(HARD_SOLUTION).append('\n').append(BatchSolver.NO_SOLUTION).append('\n');
+		}
+		assertEquals(expected.toString(), new String(Files.readAllBytes(output), StandardCharsets.US_ASCII));
+	}
+
+	public void testBatchSolverOnMappedFiles() throws IOException {
+		Files.write(input, (HARD + "\nxyz\n").getBytes(StandardCharsets.US_ASCII));
+		new BatchSolver().solve(input, output);
+		assertEquals(HARD_SOLUTION + "\n" + BatchSolver.INVALID + "\n",
+				new String(Files.readAllBytes(output), StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * The mapped and the streamed input must skip the same lines, so the
+	 * output lines match the same puzzles.
+	 */
+	public void testBothReadersSkipTheSameLines() throws IOException {
+		byte[] bytes = (HARD + "\n \t\n# comment\n\r\nxyz\n" + EASY + "\r\n").getBytes(StandardCharsets.US_ASCII);
+		Files.write(input, bytes);
+		new BatchSolver().solve(input, output);
+		ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+		new BatchSolver().solve(new ByteArrayInputStream(bytes), streamed);
+		String mapped = new String(Files.readAllBytes(output), StandardCharsets.US_ASCII);
+		assertEquals(3, mapped.split("\n").length);
+		assertEquals(mapped, new String(streamed.toByteArray(), StandardCharsets.US_ASCII));
+	}
+}
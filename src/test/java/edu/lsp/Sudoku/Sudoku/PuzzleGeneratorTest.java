@@ -0,0 +1,67 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the generator of puzzles with one solution.
+ */
+public class PuzzleGeneratorTest extends TestCase {
+
+	public PuzzleGeneratorTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(PuzzleGeneratorTest.class);
+	}
+
+	/**
+	 * Every clue of a minimal puzzle is needed: removing any of them must
+	 * allow a second solution.
+	 */
+	public void testMinimalPuzzleIsUnique() {
+		Board puzzle = new PuzzleGenerator().generate(new SplittableRandom(1));
+		assertTrue(Main.isUnique(puzzle));
+		for (int square = 0; square < Constants.NUMBER_OF_SQUARES; square++) {
+			if (isClue(puzzle, square)) {
+				Board removed = new Board(puzzle, square, Constants.ALL_CANDIDATES);
+				assertFalse(Main.isUnique(removed));
+			}
+		}
+	}
+
+	public void testTargetAndSymmetry() {
+		for (Symmetry symmetry : Symmetry.values()) {
+			PuzzleGenerator generator = new PuzzleGenerator(Grid.STANDARD, 40, symmetry);
+			List<Board> puzzles = generator.generate(20);
+			assertEquals(20, puzzles.size());
+			for (Board puzzle : puzzles) {
+				assertTrue(Main.isUnique(puzzle));
+				int clues = 0;
+				for (int square = 0; square < Constants.NUMBER_OF_SQUARES; square++) {
+					if (isClue(puzzle, square))
+						clues++;
+					int partner = symmetry.partner(Grid.STANDARD, square);
+					assertEquals(symmetry.toString(), isClue(puzzle, square), isClue(puzzle, partner));
+				}
+				assertTrue(clues == 40 || clues == 39);
+			}
+		}
+	}
+
+	public void testOtherSizes() {
+		Board puzzle = new PuzzleGenerator(Grid.of(4), 0, Symmetry.ROTATIONAL).generate(new SplittableRandom(2));
+		assertEquals(Grid.of(4), puzzle.getGrid());
+		assertEquals(1, new TrailSearch().count(puzzle, 2));
+	}
+
+	private static boolean isClue(Board board, int square) {
+		int mask = board.candidates(square);
+		return (mask & (mask - 1)) == 0;
+	}
+}
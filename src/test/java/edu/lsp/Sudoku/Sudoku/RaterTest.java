@@ -0,0 +1,111 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.BoardTest.EASY;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.EASY_SOLUTION;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the difficulty rater.
+ */
+public class RaterTest extends TestCase {
+
+	public RaterTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(RaterTest.class);
+	}
+
+	public void testEasyPuzzleNeedsSinglesOnly() {
+		Rater rater = new Rater();
+		Rating rating = rater.rate(Parser.parse(EASY));
+		assertTrue(rating.isSolved());
+		assertTrue(rating.getHardest().compareTo(Technique.NAKED_SINGLE) <= 0);
+		assertEquals(EASY_SOLUTION, rater.getCandidates().toLine());
+		assertEquals(1, rater.getPuzzles());
+		assertTrue(rater.getUses(Technique.HIDDEN_SINGLE) > 0);
+		assertEquals(0, rater.getAttempts(Technique.X_WING));
+	}
+
+	public void testContradictionNeedsTrial() {
+		Rater rater = new Rater();
+		assertEquals(Technique.TRIAL, rater.rate(Parser.parse("88" + HARD.substring(2))).getHardest());
+	}
+
+	/**
+	 * The techniques must never remove the value of the solution, whether
+	 * they finish the puzzle or not.
+	 */
+	public void testTechniquesKeepTheSolution() {
+		List<Board> puzzles = new PuzzleGenerator().generate(200, new SplittableRandom(5));
+		puzzles.add(Parser.parse(HARD));
+		Rater rater = new Rater();
+		for (Board puzzle : puzzles) {
+			Rating rating = rater.rate(puzzle);
+			List<Board> solutions = new ArrayList<>(1);
+			new TrailSearch().search(puzzle, solutions, 1);
+			Board solution = solutions.get(0);
+			Board candidates = rater.getCandidates();
+			if (rating.isSolved())
+				assertEquals(solution.toLine(), candidates.toLine());
+			for (int square = 0; square < Constants.NUMBER_OF_SQUARES; square++) {
+				assertTrue((candidates.candidates(square) & solution.candidates(square)) != 0);
+			}
+		}
+		for (Technique technique : Technique.values()) {
+			assertTrue(technique.toString(), rater.getUses(technique) > 0);
+		}
+	}
+
+	public void testParallelRatingMatches() {
+		List<Board> puzzles = new PuzzleGenerator().generate(50, new SplittableRandom(6));
+		Rater sequential = new Rater();
+		List<Rating> expected = new ArrayList<>();
+		for (Board puzzle : puzzles) {
+			expected.add(sequential.rate(puzzle));
+		}
+		Rater parallel = new Rater();
+		assertEquals(expected, parallel.rate(puzzles));
+		assertEquals(50, parallel.getPuzzles());
+		for (Technique technique : Technique.values()) {
+			assertEquals(sequential.getUses(technique), parallel.getUses(technique));
+			assertEquals(sequential.getAttempts(technique), parallel.getAttempts(technique));
+		}
+
+		// The raters of the threads are reused, but must not count twice
+		Rater again = new Rater();
+		assertEquals(expected, again.rate(puzzles));
+		assertEquals(50, again.getPuzzles());
+		for (Technique technique : Technique.values()) {
+			assertEquals(sequential.getUses(technique), again.getUses(technique));
+		}
+	}
+
+	public void testRatingOrder() {
+		Rating easy = new Rating(Technique.HIDDEN_SINGLE, 900, 60);
+		Rating hard = new Rating(Technique.X_WING, 300, 10);
+		assertTrue(easy.compareTo(hard) < 0);
+		assertTrue(hard.compareTo(new Rating(Technique.X_WING, 400, 12)) < 0);
+		Rating fewerSteps = new Rating(Technique.X_WING, 300, 8);
+		assertTrue(fewerSteps.compareTo(hard) < 0);
+		assertFalse(fewerSteps.equals(hard));
+		assertEquals(0, hard.compareTo(new Rating(Technique.X_WING, 300, 10)));
+	}
+
+	public void testOtherSizes() {
+		Board puzzle = new PuzzleGenerator(Grid.of(4), 0, Symmetry.NONE).generate(new SplittableRandom(3));
+		Rater rater = new Rater();
+		rater.rate(puzzle);
+		rater.rate(Parser.parse(EASY));
+		assertEquals(EASY_SOLUTION, rater.getCandidates().toLine());
+	}
+}
@@ -0,0 +1,116 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.BoardTest.EASY;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.EASY_SOLUTION;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD_SOLUTION;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the cache of solutions.
+ */
+public class SolutionCacheTest extends TestCase {
+
+	public SolutionCacheTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(SolutionCacheTest.class);
+	}
+
+	public void testEquivalentPuzzlesHit() {
+		SolutionCache cache = new SolutionCache(Solver.builder().limit(2).build(), 10);
+		assertEquals(HARD_SOLUTION, cache.solve(Parser.parse(HARD)).getSolutions().get(0).toLine());
+		assertEquals(0, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		SplittableRandom random = new SplittableRandom(1);
+		for (int i = 0; i < 10; i++) {
+			int[] values = new int[Constants.NUMBER_OF_SQUARES];
+			for (int square = 0; square < values.length; square++) {
+				char c = HARD.charAt(square);
+				values[square] = c == '.' ? 0 : c - '0';
+			}
+			Generator.transform(values, random);
+			StringBuilder line = new StringBuilder();
+			for (int value : values) {
+				line.append(value);
+			}
+			Board puzzle = Parser.parse(line.toString());
+			List<Board> expected = new ArrayList<>();
+			new TrailSearch().search(puzzle, expected, 2);
+			List<Board> solutions = cache.solve(puzzle).getSolutions();
+			assertEquals(1, solutions.size());
+			assertEquals(expected.get(0).toLine(), solutions.get(0).toLine());
+		}
+		assertEquals(10, cache.getHits());
+		assertEquals(1, cache.size());
+	}
+
+	public void testMultipleAndNoSolutions() {
+		SolutionCache cache = new SolutionCache(Solver.builder().limit(2).build(), 10);
+		String multiple = "...................75491283154237896369845721287169534521974368438526917796318452";
+		assertEquals(2, cache.solve(Parser.parse(multiple)).getSolutions().size());
+		assertEquals(2, cache.solve(Parser.parse(multiple)).getSolutions().size());
+		String wrong = "88" + HARD.substring(2);
+		assertTrue(cache.solve(Parser.parse(wrong)).getSolutions().isEmpty());
+		assertTrue(cache.solve(Parser.parse(wrong)).getSolutions().isEmpty());
+		assertEquals(2, cache.getHits());
+		assertEquals(2, cache.getMisses());
+		assertEquals(2, cache.count(Parser.parse(multiple)));
+		assertEquals(3, cache.getHits());
+	}
+
+	/**
+	 * The cache keeps as many solutions as the limit of its solver allows.
+	 */
+	public void testLimitOfTheSolver() {
+		SolutionCache cache = new SolutionCache(Solver.builder().limit(1).build(), 10);
+		String multiple = "...................75491283154237896369845721287169534521974368438526917796318452";
+		assertEquals(1, cache.solve(Parser.parse(multiple)).getSolutions().size());
+		SolveResult hit = cache.solve(Parser.parse(multiple));
+		assertEquals(1, hit.getSolutions().size());
+		assertTrue(hit.isLimitReached());
+		assertEquals(1, cache.getHits());
+	}
+
+	/**
+	 * A solve that the solver stopped says nothing about the puzzle, so it
+	 * must not be cached.
+	 */
+	public void testStoppedSolvesAreNotCached() {
+		SolutionCache cache = new SolutionCache(Solver.builder().nodeBudget(1).build(), 10);
+		assertEquals(SolveStatus.TIMED_OUT, cache.solve(Parser.parse(HARD)).getStatus());
+		assertEquals(0, cache.size());
+		assertEquals(SolveStatus.TIMED_OUT, cache.solve(Parser.parse(HARD)).getStatus());
+		assertEquals(0, cache.getHits());
+		assertEquals(2, cache.getMisses());
+	}
+
+	public void testLeastRecentlyUsedIsEvicted() {
+		SolutionCache cache = new SolutionCache(Solver.builder().limit(2).build(), 1);
+		cache.solve(Parser.parse(HARD));
+		assertEquals(EASY_SOLUTION, cache.solve(Parser.parse(EASY)).getSolutions().get(0).toLine());
+		assertEquals(1, cache.getEvictions());
+		assertEquals(1, cache.size());
+		cache.solve(Parser.parse(HARD));
+		assertEquals(3, cache.getMisses());
+		assertEquals(2, cache.getEvictions());
+	}
+
+	public void testOtherBoardsBypass() {
+		SolutionCache cache = new SolutionCache(Solver.builder().limit(2).build(), 10);
+		Board propagated = Parser.parse(HARD).propagate();
+		assertEquals(HARD_SOLUTION, cache.solve(propagated).getSolutions().get(0).toLine());
+		assertEquals(0, cache.getMisses());
+		assertEquals(0, cache.size());
+	}
+}
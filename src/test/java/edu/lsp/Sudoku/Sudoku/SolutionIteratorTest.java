@@ -0,0 +1,77 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.BoardTest.EASY;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.EASY_SOLUTION;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the lazy iteration over solutions.
+ */
+public class SolutionIteratorTest extends TestCase {
+
+	public SolutionIteratorTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(SolutionIteratorTest.class);
+	}
+
+	/**
+	 * The iterator runs the same DFS as the trail search, so it must find the
+	 * same solutions in the same order.
+	 */
+	public void testSameOrderAsTrailSearch() {
+		for (String puzzle : EngineTest.PUZZLES) {
+			for (TieBreak tieBreak : TieBreak.values()) {
+				EnumSet<Rule> rules = EnumSet.of(Rule.HIDDEN_SINGLE);
+				List<Board> expected = new ArrayList<>();
+				new TrailSearch(rules, tieBreak).search(Parser.parse(puzzle), expected);
+				List<String> actual = new ArrayList<>();
+				SolutionIterator iterator = new SolutionIterator(Parser.parse(puzzle), rules, tieBreak);
+				while (iterator.hasNext()) {
+					actual.add(iterator.next().toLine());
+				}
+				assertEquals(puzzle, expected.stream().map(Board::toLine).collect(Collectors.toList()), actual);
+			}
+		}
+	}
+
+	public void testNoBranching() {
+		SolutionIterator iterator = new SolutionIterator(Parser.parse(EASY));
+		assertTrue(iterator.hasNext());
+		assertEquals(EASY_SOLUTION, iterator.next().toLine());
+		assertFalse(iterator.hasNext());
+		try {
+			iterator.next();
+			fail();
+		} catch (NoSuchElementException e) {
+			// expected
+		}
+		assertFalse(new SolutionIterator(Parser.parse("88" + HARD.substring(2))).hasNext());
+	}
+
+	/**
+	 * An empty grid has billions of solutions, so this only finishes if the
+	 * stream searches lazily.
+	 */
+	public void testStreamIsLazy() {
+		String empty = new String(new char[Constants.NUMBER_OF_SQUARES]).replace('\0', '.');
+		List<Board> solutions = Main.solutions(Parser.parse(empty)).limit(1000).collect(Collectors.toList());
+		assertEquals(1000, solutions.size());
+		assertEquals(1000, solutions.stream().map(Board::toLine).distinct().count());
+		for (Board solution : solutions) {
+			assertTrue(solution.isSolved());
+		}
+	}
+}
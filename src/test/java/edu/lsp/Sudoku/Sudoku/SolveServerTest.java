@@ -0,0 +1,173 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD_SOLUTION;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the HTTP service, including a small load generator.
+ */
+public class SolveServerTest extends TestCase {
+
+	/**
+	 * A puzzle with many solutions.
+	 */
+	private static final String MULTIPLE = EngineTest.PUZZLES[3];
+
+	private SolveServer server;
+
+	public SolveServerTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(SolveServerTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		server = new SolveServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+		server.start();
+	}
+
+	@Override
+	protected void tearDown() {
+		server.close();
+	}
+
+	public void testSolve() throws IOException {
+		assertEquals(HARD_SOLUTION + "\n", post("/solve", HARD, 200));
+		assertEquals(BatchSolver.MULTIPLE_SOLUTIONS + "\n", post("/solve", MULTIPLE, 200));
+		assertEquals(BatchSolver.NO_SOLUTION + "\n", post("/solve", "88" + HARD.substring(2), 200));
+		assertEquals(BatchSolver.INVALID + "\n", post("/solve", "12", 400));
+		assertEquals(3, server.getCache().getMisses());
+
+		assertEquals(HARD_SOLUTION + "\n", post("/solve", HARD, 200));
+		assertEquals(1, server.getCache().getHits());
+	}
+
+	/**
+	 * A line longer than the limit is rejected without being kept, and the
+	 * lines after it in a batch are still answered.
+	 */
+	public void testLineTooLong() throws IOException {
+		StringBuilder line = new StringBuilder(HARD);
+		while (line.length() <= 4 * SolveServer.MAX_LINE_LENGTH) {
+			line.append(HARD);
+		}
+		assertEquals(BatchSolver.INVALID + "\n", post("/solve", line.toString(), 413));
+		assertEquals(BatchSolver.INVALID + "\n" + HARD_SOLUTION + "\n",
+				post("/batch", line + "\r\n" + HARD + "\n", 200));
+	}
+
+	/**
+	 * With no time at all, every solve runs out of time, and must not be
+	 * reported as having no solution.
+	 */
+	public void testTimeout() throws IOException {
+		server.close();
+		server = new SolveServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, 0,
+				TimeUnit.MILLISECONDS);
+		server.start();
+		assertEquals(SolveServer.TIMED_OUT + "\n", post("/solve", HARD, 503));
+		assertEquals(SolveServer.TIMED_OUT + "\n" + BatchSolver.INVALID + "\n",
+				post("/batch", HARD + "\nxyz\n", 200));
+		assertEquals(0, server.getCache().size());
+	}
+
+	public void testOnlyPost() throws IOException {
+		HttpURLConnection connection = open("/solve");
+		assertEquals(405, connection.getResponseCode());
+		connection.disconnect();
+	}
+
+	public void testBatch() throws IOException {
+		String body = "# comment\n" + HARD + "\n\n" + MULTIPLE + "\nxyz\n" + HARD + "\n";
+		String expected = HARD_SOLUTION + "\n" + BatchSolver.MULTIPLE_SOLUTIONS + "\n" + BatchSolver.INVALID + "\n"
+				+ HARD_SOLUTION + "\n";
+		assertEquals(expected, post("/batch", body, 200));
+		assertEquals(4, server.getPuzzles());
+	}
+
+	/**
+	 * Many more clients than permits send single and batch requests at once.
+	 * Every answer must be right, and no more puzzles than permits may ever
+	 * be solved at once.
+	 */
+	public void testLoad() throws Exception {
+		int clients = 16;
+		int requests = 20;
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int client = 0; client < clients; client++) {
+				final boolean batch = client % 4 == 0;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < requests; i++) {
+						if (batch) {
+							assertEquals(HARD_SOLUTION + "\n" + BatchSolver.MULTIPLE_SOLUTIONS + "\n",
+									post("/batch", HARD + "\n" + MULTIPLE + "\n", 200));
+						} else {
+							assertEquals(HARD_SOLUTION + "\n", post("/solve", HARD, 200));
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(clients * requests, server.getRequests());
+		assertEquals(clients * requests * 5 / 4, server.getPuzzles());
+		assertTrue(server.getMaxInFlight() >= 1);
+		assertTrue(server.getMaxInFlight() <= 2);
+	}
+
+	private HttpURLConnection open(String path) throws IOException {
+		URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), server.getPort(), path);
+		return (HttpURLConnection) url.openConnection();
+	}
+
+	/**
+	 * Posts the body and returns the response, checking its status.
+	 */
+	private String post(String path, String body, int status) throws IOException {
+		HttpURLConnection connection = open(path);
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write(body.getBytes(StandardCharsets.US_ASCII));
+		}
+		assertEquals(status, connection.getResponseCode());
+		try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+			ByteArrayOutputStream response = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1 << 12];
+			for (int read; (read = in.read(buffer)) > 0;) {
+				response.write(buffer, 0, read);
+			}
+			return new String(response.toByteArray(), StandardCharsets.US_ASCII);
+		}
+	}
+}
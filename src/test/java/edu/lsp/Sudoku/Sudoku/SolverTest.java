@@ -0,0 +1,179 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the configured solvers.
+ */
+public class SolverTest extends TestCase {
+
+	private static final String EMPTY = new String(new char[Constants.NUMBER_OF_SQUARES]).replace('\0', '.');
+
+	public SolverTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(SolverTest.class);
+	}
+
+	/**
+	 * Every supported combination of settings must find the same solutions
+	 * and the same count.
+	 */
+	public void testSettingsKeepSolutions() {
+		List<Solver> solvers = new ArrayList<>();
+		for (Engine engine : Engine.values()) {
+			solvers.add(Solver.builder().engine(engine).build());
+		}
+		solvers.add(Solver.builder().engine(Engine.PROPAGATION).rules(EnumSet.allOf(Rule.class)).build());
+		for (TieBreak tieBreak : TieBreak.values()) {
+			solvers.add(Solver.builder().rules(EnumSet.of(Rule.HIDDEN_SINGLE)).tieBreak(tieBreak).build());
+		}
+		for (String puzzle : EngineTest.PUZZLES) {
+			List<String> expected = EngineTest.solve(puzzle, Engine.TRAIL);
+			for (Solver solver : solvers) {
+				assertEquals(solver + " on " + puzzle, expected, solve(solver, puzzle));
+				assertEquals(solver + " on " + puzzle, expected.size(), solver.count(Parser.parse(puzzle)));
+			}
+		}
+	}
+
+	public void testLimit() {
+		String puzzle = EngineTest.PUZZLES[3];
+		for (Engine engine : Engine.values()) {
+			Solver solver = Solver.builder().engine(engine).limit(2).build();
+			SolveResult result = solver.solve(Parser.parse(puzzle));
+			assertEquals(2, result.getSolutions().size());
+			assertTrue(result.isLimitReached());
+			assertEquals(2, solver.count(Parser.parse(puzzle)));
+		}
+	}
+
+	public void testUnsupportedSettings() {
+		try {
+			Solver.builder().engine(Engine.DANCING_LINKS).rules(EnumSet.of(Rule.NAKED_PAIR)).build();
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			Solver.builder().engine(Engine.PROPAGATION).tieBreak(TieBreak.DEGREE).build();
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			Solver.builder().limit(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			Solver.builder().engine(Engine.DANCING_LINKS).timeout(1, TimeUnit.SECONDS).build();
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * An empty grid has billions of solutions, so only the budget can stop
+	 * the search.
+	 */
+	public void testNodeBudget() {
+		for (Engine engine : new Engine[] { Engine.TRAIL, Engine.PROPAGATION }) {
+			Solver solver = Solver.builder().engine(engine).nodeBudget(100).build();
+			SolveResult result = solver.solve(Parser.parse(EMPTY));
+			assertEquals(engine.toString(), SolveStatus.TIMED_OUT, result.getStatus());
+			assertEquals(100, result.getNodes());
+			assertFalse(result.isLimitReached());
+			assertFalse(result.getSolutions().isEmpty());
+
+			SolveResult hard = Solver.builder().engine(engine).nodeBudget(1 << 20).build()
+					.solve(Parser.parse(BoardTest.HARD));
+			assertEquals(SolveStatus.COMPLETED, hard.getStatus());
+			assertEquals(1, hard.getSolutions().size());
+		}
+	}
+
+	public void testTimeout() {
+		for (Engine engine : new Engine[] { Engine.TRAIL, Engine.PROPAGATION }) {
+			Solver solver = Solver.builder().engine(engine).timeout(20, TimeUnit.MILLISECONDS).build();
+			SolveResult result = solver.solve(Parser.parse(EMPTY));
+			assertEquals(engine.toString(), SolveStatus.TIMED_OUT, result.getStatus());
+			assertTrue(result.getTotalNanos() < TimeUnit.SECONDS.toNanos(5));
+		}
+	}
+
+	public void testCancellation() throws Exception {
+		Solver solver = Solver.builder().build();
+		CancellationToken cancelled = new CancellationToken();
+		cancelled.cancel();
+		SolveResult result = solver.solve(Parser.parse(BoardTest.HARD), cancelled);
+		assertEquals(SolveStatus.ABORTED, result.getStatus());
+		assertEquals(0, result.getNodes());
+
+		CancellationToken token = new CancellationToken();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<SolveResult> future = executor.submit(() -> solver.solve(Parser.parse(EMPTY), token));
+			Thread.sleep(20);
+			token.cancel();
+			assertEquals(SolveStatus.ABORTED, future.get(5, TimeUnit.SECONDS).getStatus());
+		} finally {
+			executor.shutdown();
+		}
+
+		Thread.currentThread().interrupt();
+		try {
+			assertEquals(SolveStatus.ABORTED, solver.solve(Parser.parse(BoardTest.HARD)).getStatus());
+		} finally {
+			assertTrue(Thread.interrupted());
+		}
+		assertEquals(SolveStatus.COMPLETED, solver.solve(Parser.parse(BoardTest.HARD)).getStatus());
+	}
+
+	/**
+	 * One instance shared by several threads must give every thread the
+	 * right answers.
+	 */
+	public void testSharedBetweenThreads() throws Exception {
+		final Solver solver = Solver.builder().rules(EnumSet.of(Rule.HIDDEN_SINGLE)).limit(2).build();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Long>> futures = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				final String puzzle = EngineTest.PUZZLES[i % EngineTest.PUZZLES.length];
+				futures.add(executor.submit(() -> solver.count(Parser.parse(puzzle))));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				long expected = Math.min(2, EngineTest.solve(EngineTest.PUZZLES[i % EngineTest.PUZZLES.length],
+						Engine.TRAIL).size());
+				assertEquals(expected, (long) futures.get(i).get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static List<String> solve(Solver solver, String puzzle) {
+		List<String> strings = new ArrayList<>();
+		for (Board solution : solver.solve(Parser.parse(puzzle)).getSolutions()) {
+			strings.add(solution.toString());
+		}
+		Collections.sort(strings);
+		return strings;
+	}
+}
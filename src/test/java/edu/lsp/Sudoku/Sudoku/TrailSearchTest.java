@@ -0,0 +1,183 @@
+package edu.lsp.Sudoku.Sudoku;
+
+import static edu.lsp.Sudoku.Sudoku.BoardTest.EASY;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD;
+import static edu.lsp.Sudoku.Sudoku.BoardTest.HARD_SOLUTION;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit tests for the in-place search with undo.
+ */
+public class TrailSearchTest extends TestCase {
+
+	public TrailSearchTest(String testName) {
+		super(testName);
+	}
+
+	public static Test suite() {
+		return new TestSuite(TrailSearchTest.class);
+	}
+
+	public void testSolvesHardPuzzle() {
+		List<Board> solutions = new ArrayList<>();
+		new TrailSearch().search(Parser.parse(HARD), solutions);
+		assertEquals(1, solutions.size());
+		assertEquals(Parser.parse(HARD_SOLUTION).toString(), solutions.get(0).toString());
+	}
+
+	/**
+	 * A square without candidates must make the Board unsolvable, even when
+	 * every other square is already solved.
+	 */
+	public void testNoSolutionForEmptySquare() {
+		Map<String, String> map = new LinkedHashMap<>();
+		for (String square : Constants.SQUARES) {
+			map.put(square, Constants.CANDIDATES);
+		}
+		map.put("E5", "");
+		Board board = new Board(map);
+		List<Board> solutions = new ArrayList<>();
+		new TrailSearch().search(board, solutions);
+		assertTrue(solutions.isEmpty());
+		assertEquals(0, new TrailSearch().count(board, Long.MAX_VALUE));
+		assertFalse(new SolutionIterator(board).hasNext());
+
+		Map<String, String> nearlySolved = new LinkedHashMap<>();
+		for (int i = 0; i < Constants.NUMBER_OF_SQUARES; i++) {
+			nearlySolved.put(Constants.SQUARES.get(i), i == 40 ? "" : HARD_SOLUTION.substring(i, i + 1));
+		}
+		board = new Board(nearlySolved);
+		assertEquals(0, new TrailSearch().count(board, Long.MAX_VALUE));
+		assertEquals(0, Solver.builder().build().solve(board).getSolutions().size());
+	}
+
+	/**
+	 * The same instance must give the same results when reused, which shows
+	 * that backtracking restores the state completely.
+	 */
+	public void testReuseFindsAllSolutions() {
+		TrailSearch search = new TrailSearch();
+		String puzzle = "..............................." + HARD_SOLUTION.substring(31);
+		for (int i = 0; i < 3; i++) {
+			List<Board> solutions = new ArrayList<>();
+			search.search(Parser.parse(puzzle), solutions);
+			assertEquals(444, solutions.size());
+		}
+	}
+
+	/**
+	 * The rules only cut branches without solutions, so they must not change
+	 * the solutions found.
+	 */
+	public void testRulesKeepSolutions() {
+		for (String puzzle : EngineTest.PUZZLES) {
+			List<String> expected = EngineTest.solve(puzzle, Engine.TRAIL);
+			for (Rule rule : Rule.values()) {
+				assertEquals(rule + " on " + puzzle, expected, solve(puzzle, EnumSet.of(rule)));
+			}
+			assertEquals(expected, solve(puzzle, EnumSet.allOf(Rule.class)));
+		}
+	}
+
+	/**
+	 * The tie-break only changes the order of the search, and the buckets
+	 * must be restored by backtracking like the masks.
+	 */
+	public void testTieBreaksKeepSolutions() {
+		for (TieBreak tieBreak : TieBreak.values()) {
+			TrailSearch search = new TrailSearch(EnumSet.noneOf(Rule.class), tieBreak);
+			for (String puzzle : EngineTest.PUZZLES) {
+				List<Board> solutions = new ArrayList<>();
+				search.search(Parser.parse(puzzle), solutions);
+				List<String> strings = new ArrayList<>();
+				for (Board solution : solutions) {
+					strings.add(solution.toString());
+				}
+				Collections.sort(strings);
+				assertEquals(tieBreak + " on " + puzzle, EngineTest.solve(puzzle, Engine.TRAIL), strings);
+			}
+		}
+	}
+
+	/**
+	 * The 1s below remove 1 from every square of the first row but A1, so the
+	 * rule must assign it there. Without a place for 1 in the first row, the
+	 * rule must report a contradiction, which plain propagation cannot see.
+	 */
+	public void testHiddenSinglePropagation() {
+		Board board = Parser.parse("........." + "....1...." + ".......1." + ".1......." + "........." + "........."
+				+ "..1......" + "........." + ".........");
+		assertEquals(Constants.ALL_CANDIDATES, board.propagate().candidates(0));
+		Board propagated = board.propagate(EnumSet.of(Rule.HIDDEN_SINGLE));
+		assertEquals(1, propagated.candidates(0));
+
+		Board contradiction = Parser.parse("234......" + "....1...." + ".......1." + "........." + "........."
+				+ "........." + "........." + "........." + ".........");
+		assertNotNull(contradiction.propagate());
+		assertNull(contradiction.propagate(EnumSet.of(Rule.HIDDEN_SINGLE)));
+	}
+
+	/**
+	 * Both engines that search node by node must report the same kind of
+	 * statistics. The easy puzzle is solved by propagation alone.
+	 */
+	public void testSolveResult() {
+		for (Engine engine : new Engine[] { Engine.TRAIL, Engine.PROPAGATION }) {
+			SolveResult hard = Main.solve(Parser.parse(HARD), engine, 2);
+			assertEquals(engine.toString(), 1, hard.getSolutions().size());
+			assertEquals(HARD_SOLUTION, hard.getSolutions().get(0).toLine());
+			assertFalse(hard.isLimitReached());
+			assertTrue(hard.getNodes() > 1);
+			assertTrue(hard.getBacktracks() > 0);
+			assertTrue(hard.getMaxDepth() > 0);
+			assertTrue(hard.getPropagations() >= hard.getNodes());
+			assertTrue(hard.getEliminations() > 0);
+			assertTrue(hard.getPropagationNanos() <= hard.getTotalNanos());
+
+			SolveResult easy = Main.solve(Parser.parse(EASY), engine, 2);
+			assertEquals(1, easy.getSolutions().size());
+			assertEquals(1, easy.getNodes());
+			assertEquals(0, easy.getMaxDepth());
+		}
+	}
+
+	public void testSolveResultLimit() {
+		String puzzle = "..............................." + HARD_SOLUTION.substring(31);
+		for (Engine engine : Engine.values()) {
+			SolveResult result = Main.solve(Parser.parse(puzzle), engine, 10);
+			assertEquals(engine.toString(), 10, result.getSolutions().size());
+			assertTrue(result.isLimitReached());
+		}
+		SolveResult faulty = new TrailSearch().solve(Parser.parse("88" + HARD.substring(2)), 1);
+		assertTrue(faulty.getSolutions().isEmpty());
+		assertFalse(faulty.isLimitReached());
+	}
+
+	public void testFaultyBoardHasNoSolution() {
+		List<Board> solutions = new ArrayList<>();
+		new TrailSearch().search(Parser.parse("88" + HARD.substring(2)), solutions);
+		assertTrue(solutions.isEmpty());
+	}
+
+	private static List<String> solve(String puzzle, Set<Rule> rules) {
+		List<Board> solutions = new ArrayList<>();
+		new TrailSearch(rules).search(Parser.parse(puzzle), solutions);
+		List<String> strings = new ArrayList<>();
+		for (Board solution : solutions) {
+			strings.add(solution.toString());
+		}
+		Collections.sort(strings);
+		return strings;
+	}
+}